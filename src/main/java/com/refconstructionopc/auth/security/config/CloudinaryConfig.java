@@ -1,14 +1,23 @@
 package com.refconstructionopc.auth.security.config;
 
 import com.cloudinary.Cloudinary;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
 
     @Value("${cloudinary.cloud-name}")
@@ -17,13 +26,55 @@ public class CloudinaryConfig {
     private String apiKey;
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
+    // Without an explicit manager the SDK's client is capped at http.maxConnections (5) per host
+    @Value("${cloudinary.max-connections:32}")
+    private int maxConnections;
 
     @Bean
     public Cloudinary cloudinary() {
-        Map<String, String> config = new HashMap<>();
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+        connections.setMaxTotal(maxConnections);
+        connections.setDefaultMaxPerRoute(maxConnections);
+
+        Map<String, Object> config = new HashMap<>();
         config.put("cloud_name", cloudName);
         config.put("api_key", apiKey);
         config.put("api_secret", apiSecret);
+        config.put("properties", Map.of("connectionManager", connections));
         return new Cloudinary(config);
     }
+
+    // Adaptive cap on in-flight Cloudinary calls, never above the connection pool size
+    @Bean
+    public AdaptiveConcurrencyLimiter cloudinaryLimiter(
+            @Value("${cloudinary.limiter.initial-limit:8}") int initialLimit,
+            @Value("${cloudinary.limiter.min-limit:2}") int minLimit,
+            @Value("${cloudinary.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${cloudinary.limiter.slow-call-ms:5000}") long slowCallMs,
+            @Value("${cloudinary.limiter.min-bytes-per-second:262144}") long minBytesPerSecond,
+            @Value("${cloudinary.limiter.acquire-timeout-ms:120000}") long acquireTimeoutMs,
+            MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxConnections,
+                backoffRatio, Duration.ofMillis(slowCallMs), minBytesPerSecond, Duration.ofMillis(acquireTimeoutMs));
+        Gauge.builder("cloudinary.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent Cloudinary calls")
+                .register(meterRegistry);
+        Gauge.builder("cloudinary.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("cloudinary.limiter.waiting", limiter, AdaptiveConcurrencyLimiter::getWaiting)
+                .register(meterRegistry);
+        FunctionCounter.builder("cloudinary.limiter.drops", limiter, AdaptiveConcurrencyLimiter::getDrops)
+                .description("Calls that were throttled, failed or slow, each shrinking the limit")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    // Jittered exponential backoff for transient failures; chunked uploads retry per chunk
+    @Bean
+    public RetryPolicy cloudinaryRetryPolicy(
+            @Value("${cloudinary.retry.max-attempts:4}") int maxAttempts,
+            @Value("${cloudinary.retry.base-delay-ms:500}") long baseDelayMs,
+            @Value("${cloudinary.retry.max-delay-ms:8000}") long maxDelayMs) {
+        return new RetryPolicy(maxAttempts, Duration.ofMillis(baseDelayMs), Duration.ofMillis(maxDelayMs));
+    }
 }
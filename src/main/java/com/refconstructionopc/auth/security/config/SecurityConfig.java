@@ -5,8 +5,10 @@ import com.refconstructionopc.auth.security.service.UserDetailsAdapter;
 import com.refconstructionopc.model.User;
 import com.refconstructionopc.repository.UserRepository;
 import com.refconstructionopc.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +25,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -49,6 +52,37 @@ public class SecurityConfig {
         this.customAccessDeniedHandler = customAccessDeniedHandler;
     }
 
+    /**
+     * Prometheus scrapes with HTTP Basic as metrics.scrape.username / metrics.scrape.password,
+     * an account of its own that is not accepted anywhere else. Without a password the
+     * endpoint refuses every request.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(
+            HttpSecurity http,
+            @Value("${metrics.scrape.username:prometheus}") String username,
+            @Value("${metrics.scrape.password:}") String password) throws Exception {
+        http.securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults());
+        if (password.isBlank()) {
+            return http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll()).build();
+        }
+        UserDetails scraper = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password(passwordEncoder().encode(password))
+                .roles("METRICS")
+                .build();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(scraper));
+        provider.setPasswordEncoder(passwordEncoder());
+        return http
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"))
+                .authenticationManager(new ProviderManager(provider)) // no fallback to app accounts
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -69,7 +103,12 @@ public class SecurityConfig {
                                 "/actuator/health",
                                 "/actuator/health/**"
                         ).permitAll()
-                        .requestMatchers("/api/projects/create").hasAnyRole("EMPLOYEE", "ADMIN")
+                        // Images from the local storage backend are public, like Cloudinary delivery URLs
+                        .requestMatchers(HttpMethod.GET, "/api/storage/**").permitAll()
+                        .requestMatchers("/api/projects/create", "/api/projects/createAsync",
+                                "/api/projects/jobs/**", "/api/projects/direct-uploads/**")
+                        .hasAnyRole("EMPLOYEE", "ADMIN")
+                        .requestMatchers("/api/projects/export", "/api/projects/import").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -86,9 +125,10 @@ public class SecurityConfig {
         cfg.setAllowedOrigins(List.of("http://localhost:5173", "http://127.0.0.1:5173"));
 
         cfg.setAllowedMethods(List.of("GET","POST","PUT","PATCH","DELETE","OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","Accept","X-Requested-With"));
+        cfg.setAllowedHeaders(List.of("Authorization","Content-Type","Accept","X-Requested-With",
+                "If-None-Match","If-Modified-Since"));
 
-        cfg.setExposedHeaders(List.of("Authorization"));
+        cfg.setExposedHeaders(List.of("Authorization","ETag","Last-Modified"));
 
 
         cfg.setAllowCredentials(true);
@@ -1,15 +1,36 @@
 package com.refconstructionopc.auth.security.config;
 
+import com.refconstructionopc.enums.UploadExecutorMode;
+import com.refconstructionopc.upload.BoundedVirtualThreadExecutor;
+import com.refconstructionopc.upload.UploadByteBudget;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 public class UploadPoolConfig {
+    private static final Logger log = LoggerFactory.getLogger(UploadPoolConfig.class);
 
+    // PLATFORM: fixed pool (4 core / 8 max / queue 100).
+    // VIRTUAL: a virtual thread per upload, concurrency capped by a semaphore (Java 21+).
     @Bean(name = "imageUploadExecutor")
-    public AsyncTaskExecutor imageUploadExecutor() {
+    public AsyncTaskExecutor imageUploadExecutor(
+            @Value("${uploads.executor.mode:PLATFORM}") UploadExecutorMode mode,
+            @Value("${uploads.executor.max-concurrency:32}") int maxConcurrency) {
+        if (mode == UploadExecutorMode.VIRTUAL) {
+            log.info("Image uploads run on virtual threads (max {} concurrent)", maxConcurrency);
+            return new BoundedVirtualThreadExecutor("img-upload-vt-", maxConcurrency);
+        }
         ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
         exec.setCorePoolSize(4);
         exec.setMaxPoolSize(8);
@@ -18,4 +39,93 @@ public class UploadPoolConfig {
         exec.initialize();
         return exec;
     }
+
+    // images.upload.executor.active / .queued: uploads running and uploads waiting for a worker
+    // (pool queue when PLATFORM, semaphore waiters when VIRTUAL)
+    @Bean
+    public MeterBinder imageUploadExecutorMetrics(@Qualifier("imageUploadExecutor") AsyncTaskExecutor executor) {
+        return registry -> {
+            if (executor instanceof ThreadPoolTaskExecutor tp) {
+                Gauge.builder("images.upload.executor.active", tp, ThreadPoolTaskExecutor::getActiveCount)
+                        .register(registry);
+                Gauge.builder("images.upload.executor.queued", tp, t -> t.getThreadPoolExecutor().getQueue().size())
+                        .register(registry);
+            } else if (executor instanceof BoundedVirtualThreadExecutor vt) {
+                Gauge.builder("images.upload.executor.active", vt, BoundedVirtualThreadExecutor::getActiveCount)
+                        .register(registry);
+                Gauge.builder("images.upload.executor.queued", vt, BoundedVirtualThreadExecutor::getWaitingCount)
+                        .register(registry);
+            }
+        };
+    }
+
+    // Upload bytes admitted at once across all creates (UploadAdmissionFilter)
+    @Bean
+    public UploadByteBudget uploadByteBudget(
+            @Value("${uploads.admission.max-inflight-bytes:400MB}") DataSize maxInflight,
+            @Value("${uploads.admission.max-concurrent-creates:16}") int maxConcurrentCreates,
+            MeterRegistry meterRegistry) {
+        UploadByteBudget budget = new UploadByteBudget(maxInflight.toBytes(), maxConcurrentCreates);
+        Gauge.builder("uploads.admission.capacity", budget, UploadByteBudget::getCapacity)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("uploads.admission.reserved", budget, UploadByteBudget::getReserved)
+                .description("Upload bytes currently admitted")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("uploads.admission.active", budget, UploadByteBudget::getActive)
+                .description("Creates currently admitted, at most uploads.admission.max-concurrent-creates")
+                .register(meterRegistry);
+        FunctionCounter.builder("uploads.admission.admitted", budget, UploadByteBudget::getAdmitted)
+                .register(meterRegistry);
+        FunctionCounter.builder("uploads.admission.rejected", budget, UploadByteBudget::getRejected)
+                .description("Creates refused with 429 because the upload budget or create slots were spent")
+                .register(meterRegistry);
+        return budget;
+    }
+
+    // CPU-bound image normalization, kept apart from the I/O-bound upload executor
+    @Bean(name = "imageProcessingExecutor")
+    public AsyncTaskExecutor imageProcessingExecutor(
+            @Value("${uploads.normalize.threads:0}") int threads) {
+        int n = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(n);
+        exec.setMaxPoolSize(n);
+        exec.setQueueCapacity(200);
+        exec.setThreadNamePrefix("img-process-");
+        exec.initialize();
+        return exec;
+    }
+
+    // Background workers for async creates; each runs one whole create (uploads + save)
+    @Bean(name = "projectJobExecutor")
+    public AsyncTaskExecutor projectJobExecutor(
+            @Value("${projects.jobs.workers:4}") int workers,
+            @Value("${projects.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(workers);
+        exec.setMaxPoolSize(workers);
+        exec.setQueueCapacity(queueCapacity);
+        exec.setThreadNamePrefix("project-job-");
+        exec.setWaitForTasksToCompleteOnShutdown(true);
+        exec.setAwaitTerminationSeconds(120);
+        exec.initialize();
+        return exec;
+    }
+
+    // Extra lanes of running imports (each import job also works one lane itself); small and
+    // separate so imports never take the imageUploadExecutor threads that creates need
+    @Bean(name = "projectImportExecutor")
+    public AsyncTaskExecutor projectImportExecutor(
+            @Value("${imports.threads:4}") int threads,
+            @Value("${imports.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor exec = new ThreadPoolTaskExecutor();
+        exec.setCorePoolSize(threads);
+        exec.setMaxPoolSize(threads);
+        exec.setQueueCapacity(queueCapacity);
+        exec.setThreadNamePrefix("project-import-");
+        exec.initialize();
+        return exec;
+    }
 }
@@ -0,0 +1,89 @@
+package com.refconstructionopc.auth.security.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.response.ApiResponse;
+import com.refconstructionopc.upload.UploadByteBudget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Admission control for project creates and imports: reserves the request's size and a
+ * create slot from the node's UploadByteBudget before the body is read, and answers 429
+ * with Retry-After when either is spent. Runs after the security chain, so only authorized
+ * uploads count. An import's body is only a manifest; its slot is what bounds the downloads.
+ *
+ * The reservation is exposed as a request attribute; createAsync retains it for its
+ * background job, otherwise it is released when the request completes.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(UploadAdmissionFilter.class);
+    public static final String RESERVATION_ATTRIBUTE = "uploadAdmission.reservation";
+    private static final Set<String> CREATE_PATHS = Set.of("/api/projects/create", "/api/projects/createAsync",
+            "/api/projects/import");
+
+    private final UploadByteBudget uploadByteBudget;
+    private final ObjectMapper objectMapper;
+
+    @Value("${uploads.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${uploads.admission.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    // Used when the client sends no Content-Length (chunked transfer encoding)
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    public UploadAdmissionFilter(UploadByteBudget uploadByteBudget, ObjectMapper objectMapper) {
+        this.uploadByteBudget = uploadByteBudget;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !HttpMethod.POST.matches(request.getMethod())) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !CREATE_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long length = request.getContentLengthLong();
+        long bytes = (length >= 0) ? length : maxRequestSize.toBytes();
+        UploadByteBudget.Reservation reservation = uploadByteBudget.tryReserve(bytes);
+        if (reservation == null) {
+            log.warn("Refused create of {} KB: {} of {} KB upload budget and {} of {} create slots in use",
+                    bytes / 1024, uploadByteBudget.getReserved() / 1024, uploadByteBudget.getCapacity() / 1024,
+                    uploadByteBudget.getActive(), uploadByteBudget.getMaxConcurrent());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(HttpStatus.TOO_MANY_REQUESTS.value(),
+                    "Too many uploads in progress, retry later", null));
+            return;
+        }
+        request.setAttribute(RESERVATION_ATTRIBUTE, reservation);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!reservation.isRetained()) reservation.close();
+        }
+    }
+}
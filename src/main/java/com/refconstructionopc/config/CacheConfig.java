@@ -0,0 +1,38 @@
+package com.refconstructionopc.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+// Cache advice wraps the transaction advice, so a hit never borrows a pooled connection
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String PROJECT_PAGES = "projectPages";
+
+    @Value("${projects.cache.max-size:500}")
+    private long maxSize;
+
+    @Value("${projects.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager(PROJECT_PAGES);
+        manager.setAllowNullValues(false);
+        // recordStats() feeds hit/miss/eviction meters (cache.gets, cache.evictions) on /actuator/metrics
+        manager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        return manager;
+    }
+}
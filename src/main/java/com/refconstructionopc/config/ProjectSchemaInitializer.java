@@ -0,0 +1,77 @@
+package com.refconstructionopc.config;
+
+import com.refconstructionopc.enums.ProjectSearchMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema objects that Hibernate's ddl-auto=update cannot express,
+ * e.g. the MySQL FULLTEXT index used by the FULLTEXT search mode,
+ * plus the reconcile of derived tables such as service_type_counts.
+ */
+@Component
+public class ProjectSchemaInitializer implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ProjectSchemaInitializer.class);
+
+    static final String FULLTEXT_INDEX = "ft_projects_search";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${projects.search.mode:LIKE}")
+    private ProjectSearchMode searchMode;
+
+    public ProjectSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // After the schema exists but before the web server starts, so this node's creates come after it
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcileServiceTypeCounts();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (searchMode == ProjectSearchMode.FULLTEXT) {
+            ensureFullTextIndex();
+        }
+    }
+
+    // Sets every facet count from the projects table; afterwards create() keeps it current.
+    // Runs on each start, so counts written before it (other nodes, earlier bugs) are corrected.
+    // The SELECT locks what it counts, so a concurrent create's increment lands after it.
+    private void reconcileServiceTypeCounts() {
+        try {
+            int rows = jdbcTemplate.update("""
+                    INSERT INTO service_type_counts (service_type, project_count)
+                    SELECT service_type, COUNT(*) FROM projects GROUP BY service_type
+                    ON DUPLICATE KEY UPDATE project_count = VALUES(project_count)
+                    """);
+            if (rows > 0) log.info("Reconciled service_type_counts ({} rows affected)", rows);
+        } catch (Exception e) {
+            log.warn("Could not reconcile service_type_counts: {}", e.getMessage());
+        }
+    }
+
+    private void ensureFullTextIndex() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject("""
+                    SELECT COUNT(*) FROM information_schema.statistics
+                    WHERE table_schema = DATABASE() AND table_name = 'projects' AND index_name = ?
+                    """, Integer.class, FULLTEXT_INDEX);
+            if (existing != null && existing > 0) return;
+
+            log.info("Creating FULLTEXT index {} on projects(title, description, service_type)", FULLTEXT_INDEX);
+            jdbcTemplate.execute("ALTER TABLE projects ADD FULLTEXT INDEX " + FULLTEXT_INDEX
+                    + " (title, description, service_type)");
+        } catch (Exception e) {
+            log.warn("Could not ensure FULLTEXT index {}: {}", FULLTEXT_INDEX, e.getMessage());
+        }
+    }
+}
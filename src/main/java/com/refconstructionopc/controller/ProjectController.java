@@ -1,20 +1,49 @@
 package com.refconstructionopc.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.refconstructionopc.auth.security.filter.UploadAdmissionFilter;
+import com.refconstructionopc.dto.CursorPageDTO;
+import com.refconstructionopc.dto.DirectUploadFinalizeDTO;
+import com.refconstructionopc.dto.DirectUploadTicketDTO;
 import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectJobDTO;
+import com.refconstructionopc.dto.ProjectSummaryDTO;
+import com.refconstructionopc.dto.ServiceTypeFacetDTO;
 import com.refconstructionopc.response.ApiResponse;
+import com.refconstructionopc.service.DirectUploadService;
+import com.refconstructionopc.service.ProjectAlreadyExistsException;
+import com.refconstructionopc.service.ProjectJobService;
 import com.refconstructionopc.service.ProjectService;
 import com.refconstructionopc.service.serviceImpl.ProjectServiceImpl;
+import com.refconstructionopc.upload.UploadByteBudget;
 import com.refconstructionopc.validators.ProjectDataValidators;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -22,11 +51,22 @@ import java.util.Map;
 @RequestMapping("/api/projects")
 public class ProjectController {
     private static final Logger log = LoggerFactory.getLogger(ProjectController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
     @Autowired
     private final ProjectService projectService;
+    private final ProjectJobService projectJobService;
+    // Absent when the storage backend has no signed client uploads (storage.backend=local)
+    private final ObjectProvider<DirectUploadService> directUploadService;
+    private final ObjectMapper objectMapper;
+    // getAll page -> ETag. Cached pages are shared instances, so a cache hit hashes nothing
+    private final Cache<Object, String> etags = Caffeine.newBuilder().weakKeys().maximumSize(1_000).build();
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectJobService projectJobService,
+                             ObjectProvider<DirectUploadService> directUploadService, ObjectMapper objectMapper) {
         this.projectService = projectService;
+        this.projectJobService = projectJobService;
+        this.directUploadService = directUploadService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/create", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -62,14 +102,145 @@ public class ProjectController {
        }
     }
 
+    /**
+     * Spools the files and returns 202 with a job id right away; uploads and the save run
+     * on a background worker. Poll GET /jobs/{jobId} for progress and the created project.
+     */
+    @PostMapping(value = "/createAsync", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<Object>> createAsync(
+            @RequestParam String title,
+            @RequestParam(required = false) String description,
+            @RequestParam String serviceType,
+            @RequestPart("thumbnail") MultipartFile thumbnail,
+            @RequestPart(name = "images", required = false) List<MultipartFile> images,
+            @RequestAttribute(name = UploadAdmissionFilter.RESERVATION_ATTRIBUTE, required = false)
+            UploadByteBudget.Reservation reservation,
+            Principal principal
+    ) {
+        Map<String, String> errors = ProjectDataValidators.validate(
+                title, description, serviceType, thumbnail, images
+        );
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Validation failed", errors));
+        }
+        try {
+            ProjectJobDTO job = projectJobService.submitCreate(title, description, serviceType, thumbnail, images,
+                    principal.getName(), reservation);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/projects/jobs/" + job.getJobId()))
+                    .body(ApiResponse.success(HttpStatus.ACCEPTED.value(), "Project creation accepted.", job));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "Too many pending project creations, retry later", null));
+        } catch (Exception e) {
+            log.error("Queueing create job failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Signs uploads of one thumbnail and imageCount images straight to storage, so the bytes
+     * skip this backend. Upload each slot, then POST the ticket to /direct-uploads/finalize.
+     */
+    @PostMapping("/direct-uploads")
+    public ResponseEntity<ApiResponse<DirectUploadTicketDTO>> signDirectUpload(@RequestParam int imageCount) {
+        DirectUploadService service = directUploadService.getIfAvailable();
+        if (service == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                    .body(ApiResponse.error(HttpStatus.NOT_IMPLEMENTED.value(),
+                            "Direct uploads are not supported by this storage backend", null));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), "Upload signed.",
+                    service.sign(imageCount)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+
+    @PostMapping(value = "/direct-uploads/finalize", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Object>> finalizeDirectUpload(@RequestBody DirectUploadFinalizeDTO request) {
+        DirectUploadService service = directUploadService.getIfAvailable();
+        if (service == null) {
+            return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED)
+                    .body(ApiResponse.error(HttpStatus.NOT_IMPLEMENTED.value(),
+                            "Direct uploads are not supported by this storage backend", null));
+        }
+        Map<String, String> errors = ProjectDataValidators.validate(request.getTitle(), request.getDescription(),
+                request.getServiceType(), request.getThumbnailPublicId(), request.getImagePublicIds());
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Validation failed", errors));
+        }
+        try {
+            ProjectDTO project = service.finalizeUpload(request);
+            return ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), "Project Created Successfully.", project));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (ProjectAlreadyExistsException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(HttpStatus.CONFLICT.value(), "Project already finalized", null));
+        } catch (Exception e) {
+            log.error("Finalizing direct upload {} failed", request.getUniqueId(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Bulk create from a JSON manifest of projects whose images are fetched by URL (site
+     * migrations). Returns 202 with a job id once the manifest is checked; poll
+     * GET /jobs/{jobId} for progress (items done of the manifest) and, when finished, one
+     * result per item. Items fail independently, so check each status.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Object>> importProjects(
+            @RequestBody List<ProjectImportItemDTO> items,
+            @RequestAttribute(name = UploadAdmissionFilter.RESERVATION_ATTRIBUTE, required = false)
+            UploadByteBudget.Reservation reservation,
+            Principal principal) {
+        try {
+            ProjectJobDTO job = projectJobService.submitImport(items, principal.getName(), reservation);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/projects/jobs/" + job.getJobId()))
+                    .body(ApiResponse.success(HttpStatus.ACCEPTED.value(), "Project import accepted.", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(ApiResponse.error(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                            "Too many pending project jobs, retry later", null));
+        } catch (Exception e) {
+            log.error("Queueing import job failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<ProjectJobDTO>> getJob(@PathVariable String jobId, Principal principal) {
+        // Someone else's job is reported as missing, not forbidden
+        return projectJobService.findJob(jobId, principal.getName())
+                .map(job -> ResponseEntity.ok(ApiResponse.success(HttpStatus.OK.value(), "Fetched job status.", job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(HttpStatus.NOT_FOUND.value(), "Job not found", null)));
+    }
+
     @GetMapping("/getAll")
     public ResponseEntity<ApiResponse<Page<ProjectDTO>>> getAll(
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            ServletWebRequest webRequest) {
         ApiResponse<ProjectDTO> resp = new ApiResponse<>();
         try{
             Page<ProjectDTO> results = projectService.findAllProject(search,page, size);
+            if (notModified(webRequest, etags.get(results, body -> etagOf(toJson(body))))) {
+                return null; // 304 already written, body never serialized
+            }
             ApiResponse<Page<ProjectDTO>> response = new ApiResponse<>();
             response.setStatus(HttpStatus.OK.value());
             response.setMessage("Fetched project data successfully.");
@@ -87,4 +258,121 @@ public class ProjectController {
 
     }
 
+    @GetMapping("/getAllSummary")
+    public ResponseEntity<?> getAllSummary(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            ServletWebRequest webRequest) {
+        ApiResponse<Page<ProjectSummaryDTO>> response = new ApiResponse<>();
+        try {
+            Page<ProjectSummaryDTO> results = projectService.findAllProjectSummaries(search, page, size);
+            response.setStatus(HttpStatus.OK.value());
+            response.setMessage("Fetched project summaries successfully.");
+            response.setData(results);
+            return okWithEtag(webRequest, response);
+        } catch (Exception ex) {
+            log.error("List project summaries failed", ex);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setMessage(ex.getMessage() != null ? ex.getMessage() : "Unexpected server error");
+            response.setData(null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/getAllByCursor")
+    public ResponseEntity<?> getAllByCursor(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            ServletWebRequest webRequest) {
+        ApiResponse<CursorPageDTO<ProjectDTO>> response = new ApiResponse<>();
+        try {
+            CursorPageDTO<ProjectDTO> results = projectService.findAllProjectByCursor(search, cursor, size);
+            response.setStatus(HttpStatus.OK.value());
+            response.setMessage("Fetched project data successfully.");
+            response.setData(results);
+            return okWithEtag(webRequest, response);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(ex.getMessage(), null));
+        } catch (Exception ex) {
+            log.error("List projects by cursor failed", ex);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setMessage(ex.getMessage() != null ? ex.getMessage() : "Unexpected server error");
+            response.setData(null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<?> facets(
+            @RequestParam(required = false) String search,
+            ServletWebRequest webRequest) {
+        ApiResponse<List<ServiceTypeFacetDTO>> response = new ApiResponse<>();
+        try {
+            List<ServiceTypeFacetDTO> results = projectService.getServiceTypeFacets(search);
+            response.setStatus(HttpStatus.OK.value());
+            response.setMessage("Fetched service type facets successfully.");
+            response.setData(results);
+            return okWithEtag(webRequest, response);
+        } catch (Exception ex) {
+            log.error("Facet counts failed", ex);
+            response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            response.setMessage(ex.getMessage() != null ? ex.getMessage() : "Unexpected server error");
+            response.setData(null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export() {
+        // Written on an async MVC thread; exportAll opens its own read-only transaction
+        StreamingResponseBody body = out -> projectService.exportAll(out);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"projects.ndjson\"")
+                .body(body);
+    }
+
+    /**
+     * Conditional GET with a hash of the body actually served as the ETag, so the validator
+     * can never describe a different page than this node's (possibly cached) copy, and the
+     * check needs no query. Sets the ETag and, when the client copy is current, the 304 status.
+     */
+    private boolean notModified(ServletWebRequest webRequest, String etag) {
+        HttpServletResponse response = webRequest.getResponse();
+        if (response != null) {
+            // Cacheable but always revalidated (overrides Spring Security's no-store default)
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return webRequest.checkNotModified(etag);
+    }
+
+    // Uncached listings: the bytes hashed for the ETag are the bytes written, serialized once
+    private ResponseEntity<?> okWithEtag(ServletWebRequest webRequest, ApiResponse<?> body) {
+        byte[] json = toJson(body);
+        if (notModified(webRequest, etagOf(json))) {
+            return null; // 304 already written
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String etagOf(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
 }
@@ -0,0 +1,87 @@
+package com.refconstructionopc.dto;
+
+import java.util.List;
+
+public class DirectUploadFinalizeDTO {
+    private String uniqueId;
+    private int imageCount;
+    private long expiresAt;
+    private String ticket;
+    private String title;
+    private String description;
+    private String serviceType;
+    private String thumbnailPublicId;
+    private List<String> imagePublicIds;
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(int imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getThumbnailPublicId() {
+        return thumbnailPublicId;
+    }
+
+    public void setThumbnailPublicId(String thumbnailPublicId) {
+        this.thumbnailPublicId = thumbnailPublicId;
+    }
+
+    public List<String> getImagePublicIds() {
+        return imagePublicIds;
+    }
+
+    public void setImagePublicIds(List<String> imagePublicIds) {
+        this.imagePublicIds = imagePublicIds;
+    }
+}
@@ -0,0 +1,23 @@
+package com.refconstructionopc.dto;
+
+// One signed upload: the client posts the file with exactly this public_id and signature
+public class DirectUploadSlotDTO {
+    private String publicId;
+    private String signature;
+
+    public String getPublicId() {
+        return publicId;
+    }
+
+    public void setPublicId(String publicId) {
+        this.publicId = publicId;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+}
@@ -0,0 +1,119 @@
+package com.refconstructionopc.dto;
+
+import java.util.List;
+
+/**
+ * Everything a client needs to upload a project's images straight to storage. Each slot is
+ * sent as a multipart POST to uploadUrl with file, api_key, timestamp, public_id,
+ * overwrite, allowed_formats and signature; the ticket is echoed back to finalize the project.
+ */
+public class DirectUploadTicketDTO {
+    private String uniqueId;
+    private String uploadUrl;
+    private String apiKey;
+    private long timestamp;
+    private String allowedFormats;
+    private boolean overwrite;
+    private long maxFileSizeBytes;
+    private int imageCount;
+    private long expiresAt;
+    private String ticket;
+    private DirectUploadSlotDTO thumbnail;
+    private List<DirectUploadSlotDTO> images;
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getAllowedFormats() {
+        return allowedFormats;
+    }
+
+    public void setAllowedFormats(String allowedFormats) {
+        this.allowedFormats = allowedFormats;
+    }
+
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+
+    public void setOverwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+    }
+
+    public long getMaxFileSizeBytes() {
+        return maxFileSizeBytes;
+    }
+
+    public void setMaxFileSizeBytes(long maxFileSizeBytes) {
+        this.maxFileSizeBytes = maxFileSizeBytes;
+    }
+
+    public int getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(int imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public DirectUploadSlotDTO getThumbnail() {
+        return thumbnail;
+    }
+
+    public void setThumbnail(DirectUploadSlotDTO thumbnail) {
+        this.thumbnail = thumbnail;
+    }
+
+    public List<DirectUploadSlotDTO> getImages() {
+        return images;
+    }
+
+    public void setImages(List<DirectUploadSlotDTO> images) {
+        this.images = images;
+    }
+}
@@ -0,0 +1,28 @@
+package com.refconstructionopc.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Delivery URLs for one stored image, ready for an img tag: src as the fallback and srcset
+ * with one entry per configured width (null when the backend has a single size). Built
+ * once per public id and shared between responses, hence immutable.
+ */
+public final class ImageUrlsDTO {
+    private final String src;
+    private final String srcset;
+
+    @JsonCreator
+    public ImageUrlsDTO(@JsonProperty("src") String src, @JsonProperty("srcset") String srcset) {
+        this.src = src;
+        this.srcset = srcset;
+    }
+
+    public String getSrc() {
+        return src;
+    }
+
+    public String getSrcset() {
+        return srcset;
+    }
+}
@@ -11,6 +11,7 @@ public class ProjectDTO {
     private String description;
     private String serviceType;
     private String thumbnailImage;
+    private ImageUrlsDTO thumbnailUrls;
     private List<ProjectImageDTO> images;
     private Instant createdAt;
     private Instant updatedAt;
@@ -63,6 +64,14 @@ public class ProjectDTO {
         this.thumbnailImage = thumbnailImage;
     }
 
+    public ImageUrlsDTO getThumbnailUrls() {
+        return thumbnailUrls;
+    }
+
+    public void setThumbnailUrls(ImageUrlsDTO thumbnailUrls) {
+        this.thumbnailUrls = thumbnailUrls;
+    }
+
     public List<ProjectImageDTO> getImages() {
         return images;
     }
@@ -3,6 +3,7 @@ package com.refconstructionopc.dto;
 public class ProjectImageDTO {
     private Long id;
     private String imageUrl;
+    private ImageUrlsDTO urls;
 
     public Long getId() {
         return id;
@@ -19,4 +20,12 @@ public class ProjectImageDTO {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public ImageUrlsDTO getUrls() {
+        return urls;
+    }
+
+    public void setUrls(ImageUrlsDTO urls) {
+        this.urls = urls;
+    }
 }
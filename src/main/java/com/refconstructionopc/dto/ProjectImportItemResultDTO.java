@@ -0,0 +1,64 @@
+package com.refconstructionopc.dto;
+
+import com.refconstructionopc.enums.ProjectImportStatus;
+
+public class ProjectImportItemResultDTO {
+    // Position in the manifest
+    private int index;
+    private ProjectImportStatus status;
+    private String uniqueId;
+    private Long projectId;
+    private String error;
+
+    public ProjectImportItemResultDTO() {
+    }
+
+    public ProjectImportItemResultDTO(int index, ProjectImportStatus status, String uniqueId, Long projectId,
+                                      String error) {
+        this.index = index;
+        this.status = status;
+        this.uniqueId = uniqueId;
+        this.projectId = projectId;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public ProjectImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProjectImportStatus status) {
+        this.status = status;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
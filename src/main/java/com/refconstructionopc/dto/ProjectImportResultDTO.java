@@ -0,0 +1,34 @@
+package com.refconstructionopc.dto;
+
+import java.util.List;
+
+public class ProjectImportResultDTO {
+    private int imported;
+    private int failed;
+    // One entry per manifest item, in manifest order
+    private List<ProjectImportItemResultDTO> items;
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ProjectImportItemResultDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProjectImportItemResultDTO> items) {
+        this.items = items;
+    }
+}
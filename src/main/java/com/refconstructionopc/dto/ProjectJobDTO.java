@@ -0,0 +1,102 @@
+package com.refconstructionopc.dto;
+
+import com.refconstructionopc.enums.ProjectJobKind;
+import com.refconstructionopc.enums.ProjectJobStatus;
+
+import java.time.Instant;
+
+public class ProjectJobDTO {
+    private String jobId;
+    private ProjectJobKind kind;
+    private ProjectJobStatus status;
+    // For an import: manifest items processed so far, and in the manifest
+    private int uploadedFiles;
+    private int totalFiles;
+    // Set once a create succeeded
+    private ProjectDTO project;
+    // Set once an import ran: one result per item
+    private ProjectImportResultDTO importResult;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public ProjectJobKind getKind() {
+        return kind;
+    }
+
+    public void setKind(ProjectJobKind kind) {
+        this.kind = kind;
+    }
+
+    public ProjectJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProjectJobStatus status) {
+        this.status = status;
+    }
+
+    public int getUploadedFiles() {
+        return uploadedFiles;
+    }
+
+    public void setUploadedFiles(int uploadedFiles) {
+        this.uploadedFiles = uploadedFiles;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public void setTotalFiles(int totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    public ProjectDTO getProject() {
+        return project;
+    }
+
+    public void setProject(ProjectDTO project) {
+        this.project = project;
+    }
+
+    public ProjectImportResultDTO getImportResult() {
+        return importResult;
+    }
+
+    public void setImportResult(ProjectImportResultDTO importResult) {
+        this.importResult = importResult;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.refconstructionopc.dto;
+
+public class ProjectSummaryDTO {
+    private Long id;
+    private String uniqueId;
+    private String title;
+    private String serviceType;
+    private String thumbnailImage;
+    private ImageUrlsDTO thumbnailUrls;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public void setUniqueId(String uniqueId) {
+        this.uniqueId = uniqueId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public String getThumbnailImage() {
+        return thumbnailImage;
+    }
+
+    public void setThumbnailImage(String thumbnailImage) {
+        this.thumbnailImage = thumbnailImage;
+    }
+
+    public ImageUrlsDTO getThumbnailUrls() {
+        return thumbnailUrls;
+    }
+
+    public void setThumbnailUrls(ImageUrlsDTO thumbnailUrls) {
+        this.thumbnailUrls = thumbnailUrls;
+    }
+}
@@ -0,0 +1,30 @@
+package com.refconstructionopc.dto;
+
+public class ServiceTypeFacetDTO {
+    private String serviceType;
+    private long count;
+
+    public ServiceTypeFacetDTO() {
+    }
+
+    public ServiceTypeFacetDTO(String serviceType, long count) {
+        this.serviceType = serviceType;
+        this.count = count;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,5 @@
+package com.refconstructionopc.enums;
+
+public enum ProjectImportStatus {
+    IMPORTED, FAILED
+}
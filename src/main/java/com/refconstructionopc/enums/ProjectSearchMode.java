@@ -0,0 +1,5 @@
+package com.refconstructionopc.enums;
+
+public enum ProjectSearchMode {
+    LIKE, FULLTEXT, INDEX
+}
@@ -0,0 +1,42 @@
+package com.refconstructionopc.event;
+
+/**
+ * Published by ProjectServiceImpl once a project row is saved.
+ * Listeners that maintain derived state should use
+ * {@code @TransactionalEventListener} so they only see committed data.
+ */
+public class ProjectCreatedEvent {
+    private final Long projectId;
+    private final String uniqueId;
+    private final String title;
+    private final String description;
+    private final String serviceType;
+
+    public ProjectCreatedEvent(Long projectId, String uniqueId, String title, String description, String serviceType) {
+        this.projectId = projectId;
+        this.uniqueId = uniqueId;
+        this.title = title;
+        this.description = description;
+        this.serviceType = serviceType;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getServiceType() {
+        return serviceType;
+    }
+}
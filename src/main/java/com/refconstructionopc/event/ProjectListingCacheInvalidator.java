@@ -0,0 +1,24 @@
+package com.refconstructionopc.event;
+
+import com.refconstructionopc.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ProjectListingCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    public ProjectListingCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Any new project can shift every page, so drop them all once the insert is visible
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectCreated(ProjectCreatedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.PROJECT_PAGES);
+        if (cache != null) cache.clear();
+    }
+}
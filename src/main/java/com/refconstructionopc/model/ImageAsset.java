@@ -0,0 +1,70 @@
+package com.refconstructionopc.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// One stored image per distinct content hash, shared by every project image that uses it
+@Entity
+@Table(name = "image_assets", indexes = {
+        @Index(name = "uk_image_assets_public_id", columnList = "public_id", unique = true)
+})
+public class ImageAsset {
+
+    // Hex SHA-256 of the file content
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "public_id", nullable = false)
+    private String publicId;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "byte_size", nullable = false)
+    private long byteSize;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getPublicId() {
+        return publicId;
+    }
+
+    public void setPublicId(String publicId) {
+        this.publicId = publicId;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public void setByteSize(long byteSize) {
+        this.byteSize = byteSize;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -6,7 +6,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "projects")
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_created_at_id", columnList = "created_at, id")
+})
 public class Project {
 
     @Id
@@ -0,0 +1,155 @@
+package com.refconstructionopc.model;
+
+import com.refconstructionopc.enums.ProjectJobKind;
+import com.refconstructionopc.enums.ProjectJobStatus;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// An async create or import, shared by all nodes so any of them can report its status
+@Entity
+@Table(name = "project_jobs", indexes = {
+        @Index(name = "idx_project_jobs_finished_at", columnList = "finished_at, updated_at")
+})
+public class ProjectJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    // Null on rows written before imports ran as jobs, which were all creates
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ProjectJobKind kind;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ProjectJobStatus status;
+
+    // Username of the submitter; only they can read the job
+    @Column(name = "submitted_by", nullable = false)
+    private String submittedBy;
+
+    // Node holding the spool files and running the job
+    @Column(nullable = false)
+    private String node;
+
+    // Files of a create, manifest items of an import
+    @Column(name = "uploaded_files", nullable = false)
+    private int uploadedFiles;
+
+    @Column(name = "total_files", nullable = false)
+    private int totalFiles;
+
+    // Once the job succeeded: JSON of the created ProjectDTO, or of the ProjectImportResultDTO
+    @Column(columnDefinition = "MEDIUMTEXT")
+    private String result;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ProjectJobKind getKind() {
+        return (kind != null) ? kind : ProjectJobKind.CREATE;
+    }
+
+    public void setKind(ProjectJobKind kind) {
+        this.kind = kind;
+    }
+
+    public ProjectJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ProjectJobStatus status) {
+        this.status = status;
+    }
+
+    public String getSubmittedBy() {
+        return submittedBy;
+    }
+
+    public void setSubmittedBy(String submittedBy) {
+        this.submittedBy = submittedBy;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public int getUploadedFiles() {
+        return uploadedFiles;
+    }
+
+    public void setUploadedFiles(int uploadedFiles) {
+        this.uploadedFiles = uploadedFiles;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public void setTotalFiles(int totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.refconstructionopc.model;
+
+import jakarta.persistence.*;
+
+// Running project count per serviceType, maintained by ProjectServiceImpl.create
+@Entity
+@Table(name = "service_type_counts")
+public class ServiceTypeCount {
+
+    @Id
+    @Column(name = "service_type", length = 100)
+    private String serviceType;
+
+    @Column(name = "project_count", nullable = false)
+    private long projectCount;
+
+    public String getServiceType() {
+        return serviceType;
+    }
+
+    public void setServiceType(String serviceType) {
+        this.serviceType = serviceType;
+    }
+
+    public long getProjectCount() {
+        return projectCount;
+    }
+
+    public void setProjectCount(long projectCount) {
+        this.projectCount = projectCount;
+    }
+}
@@ -0,0 +1,21 @@
+package com.refconstructionopc.repository;
+
+import com.refconstructionopc.model.AssetCleanup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface AssetCleanupRepository extends JpaRepository<AssetCleanup, Long> {
+
+    List<AssetCleanup> findByNextAttemptAtLessThanEqualOrderByIdAsc(Instant now, Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM AssetCleanup a WHERE a.publicId IN :publicIds")
+    int deleteByPublicIdIn(@Param("publicIds") Collection<String> publicIds);
+}
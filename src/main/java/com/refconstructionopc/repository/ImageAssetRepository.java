@@ -0,0 +1,50 @@
+package com.refconstructionopc.repository;
+
+import com.refconstructionopc.model.ImageAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, String> {
+
+    Optional<ImageAsset> findByPublicId(String publicId);
+
+    // Reference counts only move through single-row UPDATE/INSERT statements so concurrent
+    // creates and releases never lose an update.
+    @Modifying
+    @Query(value = "UPDATE image_assets SET ref_count = ref_count + 1 WHERE content_hash = :hash",
+           nativeQuery = true)
+    int incrementRefCount(@Param("hash") String contentHash);
+
+    // 0 when another upload of the same content registered first
+    @Modifying
+    @Query(value = """
+    INSERT IGNORE INTO image_assets (content_hash, public_id, ref_count, byte_size, created_at)
+    VALUES (:hash, :publicId, 1, :byteSize, :createdAt)
+  """, nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String contentHash,
+                       @Param("publicId") String publicId,
+                       @Param("byteSize") long byteSize,
+                       @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = "UPDATE image_assets SET ref_count = ref_count - 1 WHERE public_id = :publicId AND ref_count > 0",
+           nativeQuery = true)
+    int decrementRefCount(@Param("publicId") String publicId);
+
+    // Removes the row only if nobody re-acquired it in the meantime
+    @Modifying
+    @Query(value = "DELETE FROM image_assets WHERE public_id = :publicId AND ref_count = 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("publicId") String publicId);
+
+    // Of these ids, the ones some project still references
+    @Query(value = "SELECT public_id FROM image_assets WHERE public_id IN (:publicIds) AND ref_count > 0",
+           nativeQuery = true)
+    List<String> findReferenced(@Param("publicIds") Collection<String> publicIds);
+}
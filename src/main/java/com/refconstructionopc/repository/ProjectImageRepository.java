@@ -2,6 +2,19 @@ package com.refconstructionopc.repository;
 
 import com.refconstructionopc.model.ProjectImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProjectImageRepository extends JpaRepository<ProjectImage, Long> {
+
+    // One round-trip for the images of a whole listing page (avoids N lazy loads)
+    @Query("""
+    SELECT pi FROM ProjectImage pi
+    WHERE pi.project.id IN :projectIds
+    ORDER BY pi.id
+  """)
+    List<ProjectImage> findByProjectIdIn(@Param("projectIds") Collection<Long> projectIds);
 }
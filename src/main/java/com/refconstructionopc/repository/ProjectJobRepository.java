@@ -0,0 +1,76 @@
+package com.refconstructionopc.repository;
+
+import com.refconstructionopc.enums.ProjectJobStatus;
+import com.refconstructionopc.model.ProjectJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ProjectJobRepository extends JpaRepository<ProjectJob, String> {
+
+    // Progress from upload threads; also serves as the heartbeat checked by failAbandoned.
+    // Threads report out of order, so a lower count than the stored one is ignored
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ProjectJob j SET j.uploadedFiles = :uploaded, j.updatedAt = :now
+            WHERE j.id = :id AND j.uploadedFiles < :uploaded
+            """)
+    int updateProgress(@Param("id") String id, @Param("uploaded") int uploaded, @Param("now") Instant now);
+
+    // Only a job still QUEUED starts: 0 when it was failed (restart, abandoned) while it waited
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE ProjectJob j SET j.status = com.refconstructionopc.enums.ProjectJobStatus.RUNNING, j.updatedAt = :now
+    WHERE j.id = :id AND j.status = com.refconstructionopc.enums.ProjectJobStatus.QUEUED AND j.finishedAt IS NULL
+  """)
+    int markRunning(@Param("id") String id, @Param("now") Instant now);
+
+    // Records the outcome unless the job was already failed meanwhile; keeps the higher progress
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE ProjectJob j SET j.status = :status, j.result = :result, j.error = :error,
+        j.uploadedFiles = CASE WHEN j.uploadedFiles < :uploaded THEN :uploaded ELSE j.uploadedFiles END,
+        j.finishedAt = :now, j.updatedAt = :now
+    WHERE j.id = :id AND j.finishedAt IS NULL
+  """)
+    int finish(@Param("id") String id, @Param("status") ProjectJobStatus status, @Param("uploaded") int uploaded,
+               @Param("result") String result, @Param("error") String error, @Param("now") Instant now);
+
+    // Liveness of this node's jobs, queued ones included, so failAbandoned only hits jobs of a node that is gone
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProjectJob j SET j.updatedAt = :now WHERE j.node = :node AND j.finishedAt IS NULL")
+    int touchUnfinishedOnNode(@Param("node") String node, @Param("now") Instant now);
+
+    // Unfinished jobs of a node that restarted: their spool files and workers are gone
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE ProjectJob j SET j.status = com.refconstructionopc.enums.ProjectJobStatus.FAILED,
+        j.error = :error, j.finishedAt = :now, j.updatedAt = :now
+    WHERE j.node = :node AND j.finishedAt IS NULL
+  """)
+    int failUnfinishedOnNode(@Param("node") String node, @Param("error") String error, @Param("now") Instant now);
+
+    // Unfinished jobs whose node has not touched them since the cutoff (the node is gone)
+    @Transactional
+    @Modifying
+    @Query("""
+    UPDATE ProjectJob j SET j.status = com.refconstructionopc.enums.ProjectJobStatus.FAILED,
+        j.error = :error, j.finishedAt = :now, j.updatedAt = :now
+    WHERE j.finishedAt IS NULL AND j.updatedAt < :cutoff
+  """)
+    int failAbandoned(@Param("cutoff") Instant cutoff, @Param("error") String error, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProjectJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,20 +1,62 @@
 package com.refconstructionopc.repository;
 
 import com.refconstructionopc.model.Project;
+import com.refconstructionopc.repository.projection.ProjectExportRowView;
+import com.refconstructionopc.repository.projection.ProjectSearchDocumentView;
+import com.refconstructionopc.repository.projection.ProjectSummaryView;
+import com.refconstructionopc.repository.projection.ServiceTypeCountView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     Optional<Project> findByUniqueId(String uniqueId);
     boolean existsByUniqueId(String uniqueId);
     void deleteByUniqueId(String uniqueId);
 
+    @Query(value = """
+    SELECT p FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+    ORDER BY p.createdAt DESC, p.id DESC
+  """,
+           countQuery = """
+    SELECT COUNT(p) FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+  """)
+    Page<Project> getAllProjectWithSearch(@Param("search") String search, Pageable pageable);
+
+    // Keyset paging: seeks on the (created_at, id) index instead of skipping OFFSET rows
+    @Query("""
+    SELECT p FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+    ORDER BY p.createdAt DESC, p.id DESC
+  """)
+    List<Project> findFirstKeysetPage(@Param("search") String search, Limit limit);
+
     @Query("""
     SELECT p FROM Project p
     WHERE (:search IS NULL OR :search = '' OR
@@ -22,7 +64,145 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
            LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
            LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
            LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
-    ORDER BY p.createdAt DESC
+      AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))
+    ORDER BY p.createdAt DESC, p.id DESC
+  """)
+    List<Project> findKeysetPageAfter(@Param("search") String search,
+                                      @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    // FULLTEXT mode: MATCH ... AGAINST over ft_projects_search, ranked by relevance
+    @Query(value = """
+    SELECT p.* FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+    ORDER BY MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE) DESC,
+             p.created_at DESC, p.id DESC
+  """,
+           countQuery = """
+    SELECT COUNT(*) FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+  """,
+           nativeQuery = true)
+    Page<Project> searchFullText(@Param("terms") String terms, Pageable pageable);
+
+    @Query(value = """
+    SELECT p.* FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+    ORDER BY p.created_at DESC, p.id DESC
+  """, nativeQuery = true)
+    List<Project> findFirstFullTextKeysetPage(@Param("terms") String terms, Limit limit);
+
+    @Query(value = """
+    SELECT p.* FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+      AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id))
+    ORDER BY p.created_at DESC, p.id DESC
+  """, nativeQuery = true)
+    List<Project> findFullTextKeysetPageAfter(@Param("terms") String terms,
+                                              @Param("createdAt") Instant createdAt,
+                                              @Param("id") Long id,
+                                              Limit limit);
+
+    // Facet counts narrowed by a search term (the unfiltered counts live in service_type_counts)
+    @Query("""
+    SELECT p.serviceType AS serviceType, COUNT(p) AS projectCount
+    FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+    GROUP BY p.serviceType
+  """)
+    List<ServiceTypeCountView> countServiceTypesWithSearch(@Param("search") String search);
+
+    @Query(value = """
+    SELECT p.service_type AS serviceType, COUNT(*) AS projectCount
+    FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+    GROUP BY p.service_type
+  """, nativeQuery = true)
+    List<ServiceTypeCountView> countServiceTypesFullText(@Param("terms") String terms);
+
+    // Batched by id so the in-memory search index can be built without loading every entity
+    @Query("""
+    SELECT p.id AS id, p.title AS title, p.description AS description, p.serviceType AS serviceType
+    FROM Project p
+    WHERE p.id > :afterId
+    ORDER BY p.id
+  """)
+    List<ProjectSearchDocumentView> findSearchDocumentsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Summary projections for the gallery grid (scalar columns, no entity hydration)
+    @Query(value = """
+    SELECT p.id AS id, p.uniqueId AS uniqueId, p.title AS title,
+           p.serviceType AS serviceType, p.thumbnailImage AS thumbnailImage
+    FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+    ORDER BY p.createdAt DESC, p.id DESC
+  """,
+           countQuery = """
+    SELECT COUNT(p) FROM Project p
+    WHERE (:search IS NULL OR :search = '' OR
+           LOWER(p.title)       LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.uniqueId)    LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')) OR
+           LOWER(p.serviceType) LIKE LOWER(CONCAT('%', :search, '%')))
+  """)
+    Page<ProjectSummaryView> findSummariesWithSearch(@Param("search") String search, Pageable pageable);
+
+    @Query(value = """
+    SELECT p.id AS id, p.unique_id AS uniqueId, p.title AS title,
+           p.service_type AS serviceType, p.thumbnail_image AS thumbnailImage
+    FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+    ORDER BY MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE) DESC,
+             p.created_at DESC, p.id DESC
+  """,
+           countQuery = """
+    SELECT COUNT(*) FROM projects p
+    WHERE MATCH(p.title, p.description, p.service_type) AGAINST (:terms IN BOOLEAN MODE)
+  """,
+           nativeQuery = true)
+    Page<ProjectSummaryView> searchSummariesFullText(@Param("terms") String terms, Pageable pageable);
+
+    @Query("""
+    SELECT p.id AS id, p.uniqueId AS uniqueId, p.title AS title,
+           p.serviceType AS serviceType, p.thumbnailImage AS thumbnailImage
+    FROM Project p
+    WHERE p.id IN :ids
+  """)
+    List<ProjectSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+    SELECT p.id AS id, p.uniqueId AS uniqueId, p.title AS title,
+           p.serviceType AS serviceType, p.thumbnailImage AS thumbnailImage
+    FROM Project p
+    WHERE p.uniqueId = :uniqueId
+  """)
+    List<ProjectSummaryView> findSummariesByUniqueId(@Param("uniqueId") String uniqueId);
+
+    /**
+     * Full-catalogue export as flat rows. Integer.MIN_VALUE makes MySQL Connector/J
+     * stream row by row instead of buffering the whole result set; callers must
+     * consume it inside a (read-only) transaction and close the stream.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT p.id AS id, p.uniqueId AS uniqueId, p.title AS title, p.description AS description,
+           p.serviceType AS serviceType, p.thumbnailImage AS thumbnailImage,
+           p.createdAt AS createdAt, p.updatedAt AS updatedAt,
+           i.id AS imageId, i.imageUrl AS imageUrl
+    FROM Project p LEFT JOIN p.images i
+    ORDER BY p.id, i.id
   """)
-    List<Project> getAllProjectWithSearch(@Param("search") String search);
-}
\ No newline at end of file
+    Stream<ProjectExportRowView> streamExportRows();
+}
@@ -0,0 +1,30 @@
+package com.refconstructionopc.repository;
+
+import com.refconstructionopc.model.ServiceTypeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ServiceTypeCountRepository extends JpaRepository<ServiceTypeCount, String> {
+
+    // Single-statement upsert; concurrent creates of one serviceType serialize on the row lock
+    @Modifying
+    @Query(value = """
+    INSERT INTO service_type_counts (service_type, project_count) VALUES (:serviceType, 1)
+    ON DUPLICATE KEY UPDATE project_count = project_count + 1
+  """, nativeQuery = true)
+    int increment(@Param("serviceType") String serviceType);
+
+    // Batched creates: one upsert per serviceType instead of one per project
+    @Modifying
+    @Query(value = """
+    INSERT INTO service_type_counts (service_type, project_count) VALUES (:serviceType, :delta)
+    ON DUPLICATE KEY UPDATE project_count = project_count + :delta
+  """, nativeQuery = true)
+    int incrementBy(@Param("serviceType") String serviceType, @Param("delta") long delta);
+
+    List<ServiceTypeCount> findAllByOrderByProjectCountDescServiceTypeAsc();
+}
@@ -0,0 +1,17 @@
+package com.refconstructionopc.repository.projection;
+
+import java.time.Instant;
+
+// One row per (project, image); rows of the same project arrive consecutively
+public interface ProjectExportRowView {
+    Long getId();
+    String getUniqueId();
+    String getTitle();
+    String getDescription();
+    String getServiceType();
+    String getThumbnailImage();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+    Long getImageId();
+    String getImageUrl();
+}
@@ -0,0 +1,9 @@
+package com.refconstructionopc.repository.projection;
+
+// Columns the in-memory search index needs; avoids hydrating Project entities
+public interface ProjectSearchDocumentView {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getServiceType();
+}
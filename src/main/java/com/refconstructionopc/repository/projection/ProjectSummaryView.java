@@ -0,0 +1,10 @@
+package com.refconstructionopc.repository.projection;
+
+// Gallery-grid columns only: no description TEXT, no images, no managed entity
+public interface ProjectSummaryView {
+    Long getId();
+    String getUniqueId();
+    String getTitle();
+    String getServiceType();
+    String getThumbnailImage();
+}
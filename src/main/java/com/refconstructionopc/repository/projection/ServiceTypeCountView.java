@@ -0,0 +1,6 @@
+package com.refconstructionopc.repository.projection;
+
+public interface ServiceTypeCountView {
+    String getServiceType();
+    Long getProjectCount();
+}
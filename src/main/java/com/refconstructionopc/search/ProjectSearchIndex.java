@@ -0,0 +1,215 @@
+package com.refconstructionopc.search;
+
+import com.refconstructionopc.enums.ProjectSearchMode;
+import com.refconstructionopc.event.ProjectCreatedEvent;
+import com.refconstructionopc.repository.ProjectRepository;
+import com.refconstructionopc.repository.projection.ProjectSearchDocumentView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over project title, description and serviceType
+ * (projects.search.mode=INDEX).
+ *
+ * Every indexed word contributes a token posting and one posting per trigram.
+ * A query matches when each of its words is found in the project:
+ * words of 3+ chars anywhere inside an indexed word (trigram postings, then
+ * verified against the stored text), shorter words as a word prefix
+ * (range scan over the sorted token dictionary).
+ *
+ * Built once at startup, then updated after each project-creating commit on this node.
+ * Projects created on other nodes are picked up by a periodic catch-up over the rows
+ * past the highest indexed id (projects.search.catch-up-interval-ms). Ids are taken at
+ * insert but commits can land out of order, so each catch-up re-reads the last
+ * BUILD_BATCH ids below that mark too; already indexed ids are skipped.
+ */
+@Component
+public class ProjectSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProjectSearchIndex.class);
+    private static final int GRAM = 3;
+    private static final int BUILD_BATCH = 500;
+
+    private final ProjectRepository projectRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, IntPostings> tokens = new TreeMap<>();
+    private final Map<String, IntPostings> grams = new HashMap<>();
+    // Lower-cased indexed fields per project id, used to verify trigram candidates
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    // Original-case serviceType per project id, for facet counts over search hits
+    private final Map<Integer, String> serviceTypes = new HashMap<>();
+    private volatile boolean ready;
+    private volatile long highestId;
+
+    @Value("${projects.search.mode:LIKE}")
+    private ProjectSearchMode searchMode;
+
+    public ProjectSearchIndex(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (searchMode != ProjectSearchMode.INDEX) return;
+        long t0 = System.currentTimeMillis();
+        indexAfter(0L);
+        ready = true;
+        log.info("Project search index built: {} projects, {} tokens, {} trigrams in {} ms",
+                documents.size(), tokens.size(), grams.size(), System.currentTimeMillis() - t0);
+    }
+
+    @Scheduled(fixedDelayString = "${projects.search.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        if (searchMode != ProjectSearchMode.INDEX || !ready) return;
+        int added = indexAfter(Math.max(0L, highestId - BUILD_BATCH));
+        if (added > 0) log.debug("Project search index caught up on {} projects", added);
+    }
+
+    private int indexAfter(long afterId) {
+        int added = 0;
+        List<ProjectSearchDocumentView> batch;
+        do {
+            batch = projectRepository.findSearchDocumentsAfter(afterId, Limit.of(BUILD_BATCH));
+            for (ProjectSearchDocumentView doc : batch) {
+                if (add(doc.getId(), doc.getTitle(), doc.getDescription(), doc.getServiceType())) added++;
+                afterId = doc.getId();
+            }
+        } while (batch.size() == BUILD_BATCH);
+        return added;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProjectCreated(ProjectCreatedEvent event) {
+        if (searchMode != ProjectSearchMode.INDEX) return;
+        add(event.getProjectId(), event.getTitle(), event.getDescription(), event.getServiceType());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of matching projects, newest (highest id) first,
+     * or null when the query has no searchable words.
+     */
+    public int[] search(String query) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty()) return null;
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            for (String w : words) {
+                int[] match = (w.length() >= GRAM) ? gramCandidates(w) : prefixCandidates(w);
+                candidates = (candidates == null) ? match : IntPostings.intersect(candidates, match);
+                if (candidates.length == 0) return candidates;
+            }
+
+            int[] out = new int[candidates.length];
+            int n = 0;
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                int id = candidates[i];
+                if (containsLongWords(documents.get(id), words)) out[n++] = id;
+            }
+            return Arrays.copyOf(out, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Long> countServiceTypes(int[] ids) {
+        Map<String, Long> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int id : ids) {
+                String type = serviceTypes.get(id);
+                if (type != null) counts.merge(type, 1L, Long::sum);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    // False when the project was already indexed
+    private boolean add(Long projectId, String title, String description, String serviceType) {
+        int id = Math.toIntExact(projectId);
+        String[] fields = {lower(title), lower(description), lower(serviceType)};
+
+        lock.writeLock().lock();
+        try {
+            if (documents.putIfAbsent(id, fields) != null) return false;
+            if (id > highestId) highestId = id;
+            serviceTypes.put(id, serviceType);
+            Set<String> seenGrams = new HashSet<>();
+            for (String field : fields) {
+                for (String word : tokenize(field)) {
+                    tokens.computeIfAbsent(word, k -> new IntPostings()).add(id);
+                    for (int i = 0; i + GRAM <= word.length(); i++) {
+                        String g = word.substring(i, i + GRAM);
+                        if (seenGrams.add(g)) grams.computeIfAbsent(g, k -> new IntPostings()).add(id);
+                    }
+                }
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int[] gramCandidates(String word) {
+        int[] result = null;
+        for (int i = 0; i + GRAM <= word.length(); i++) {
+            IntPostings postings = grams.get(word.substring(i, i + GRAM));
+            if (postings == null) return new int[0];
+            result = (result == null) ? postings.toArray() : IntPostings.intersect(result, postings.toArray());
+            if (result.length == 0) break;
+        }
+        return result;
+    }
+
+    private int[] prefixCandidates(String prefix) {
+        int[] result = new int[0];
+        for (IntPostings postings : tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            result = IntPostings.union(result, postings.toArray());
+        }
+        return result;
+    }
+
+    // Trigram hits for words longer than one trigram can be false positives
+    private static boolean containsLongWords(String[] fields, List<String> words) {
+        for (String w : words) {
+            if (w.length() <= GRAM) continue;
+            boolean found = false;
+            for (String f : fields) {
+                if (f.contains(w)) { found = true; break; }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> out = new ArrayList<>();
+        for (String w : lower(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!w.isEmpty() && !out.contains(w)) out.add(w);
+        }
+        return out;
+    }
+
+    private static String lower(String s) {
+        return (s == null) ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,16 @@
+package com.refconstructionopc.service;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface AssetCleanupService {
+    // Queued in the caller's transaction: the delete happens only if it commits
+    void enqueue(Collection<String> publicIds);
+    // Same, but not deleted before the given time, unless cancelled by then
+    void enqueueAt(Collection<String> publicIds, Instant notBefore);
+    // Drops pending deletes (the assets are in use after all); in the caller's transaction
+    void cancel(Collection<String> publicIds);
+    // Queued whatever the caller's transaction does (failure paths)
+    void enqueueDetached(Collection<String> publicIds);
+    int drain();
+}
@@ -0,0 +1,19 @@
+package com.refconstructionopc.service;
+
+import com.refconstructionopc.dto.DirectUploadFinalizeDTO;
+import com.refconstructionopc.dto.DirectUploadTicketDTO;
+import com.refconstructionopc.dto.ProjectDTO;
+
+import java.io.IOException;
+
+/**
+ * Uploads that go from the client straight to the storage provider: the backend signs the
+ * uploads, then verifies what was stored and writes the project rows. Only backends that
+ * accept signed client uploads provide a bean (Cloudinary); with storage.backend=local
+ * there is none.
+ */
+public interface DirectUploadService {
+    // Signed slots for one thumbnail and imageCount gallery images
+    DirectUploadTicketDTO sign(int imageCount);
+    ProjectDTO finalizeUpload(DirectUploadFinalizeDTO request) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.refconstructionopc.service;
+
+import com.refconstructionopc.upload.PendingImage;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+
+public interface ImageAssetService {
+    List<PendingImage> prepare(List<MultipartFile> files, String subFolder) throws IOException;
+    void upload(PendingImage image) throws IOException;
+    String reference(PendingImage image) throws IOException;
+    void discard(PendingImage image);
+    // Drops one reference, in the caller's (delete) transaction; the file is queued for deletion with the last one
+    void release(String publicId);
+}
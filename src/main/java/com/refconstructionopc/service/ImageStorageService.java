@@ -0,0 +1,25 @@
+package com.refconstructionopc.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Where uploaded images are stored, keyed by an opaque public id. storage.backend picks
+ * the implementation: "cloudinary" (default, CloudinaryServiceImpl) or "local"
+ * (LocalImageStorageServiceImpl, files on this node's disk).
+ */
+public interface ImageStorageService {
+    String uploadAndGetKey(MultipartFile file, String subFolder) throws IOException;
+    String uploadAndGetKey(byte[] bytes, String subFolder) throws IOException;
+    String smartUpload(MultipartFile file, String subFolder) throws IOException;
+    String smartUpload(Path file, String subFolder) throws IOException;
+    String uploadAndGetKeyLarge(InputStream in, String subFolder) throws IOException;
+    boolean deleteByKey(String publicId) throws IOException;
+    // Bulk delete (at most 100 ids); returns the ids that are gone, including ones never found
+    Set<String> deleteByKeys(Collection<String> publicIds) throws IOException;
+}
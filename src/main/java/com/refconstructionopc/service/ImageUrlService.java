@@ -0,0 +1,12 @@
+package com.refconstructionopc.service;
+
+import com.refconstructionopc.dto.ImageUrlsDTO;
+
+/**
+ * Delivery URLs for stored images, one implementation per storage backend. Results are
+ * memoized per public id, so building listing pages costs a map lookup per image.
+ */
+public interface ImageUrlService {
+    // null for a null or blank public id
+    ImageUrlsDTO urls(String publicId);
+}
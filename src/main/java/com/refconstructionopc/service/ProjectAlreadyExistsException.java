@@ -0,0 +1,8 @@
+package com.refconstructionopc.service;
+
+/** A project with this uniqueId was created already (e.g. a direct upload finalized twice). */
+public class ProjectAlreadyExistsException extends RuntimeException {
+    public ProjectAlreadyExistsException(String uniqueId) {
+        super("Project " + uniqueId + " already exists");
+    }
+}
@@ -0,0 +1,18 @@
+package com.refconstructionopc.service;
+
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectImportResultDTO;
+import com.refconstructionopc.upload.UploadProgressListener;
+
+import java.util.List;
+
+/**
+ * Bulk creates for portfolio migrations. Each item succeeds or fails on its own; the result
+ * lists every item in manifest order.
+ */
+public interface ProjectImportService {
+    // IllegalArgumentException for an empty manifest or one over imports.max-items
+    void checkManifest(List<ProjectImportItemDTO> items);
+    ProjectImportResultDTO importProjects(List<ProjectImportItemDTO> items);
+    ProjectImportResultDTO importProjects(List<ProjectImportItemDTO> items, UploadProgressListener progress);
+}
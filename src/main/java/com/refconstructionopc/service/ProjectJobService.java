@@ -0,0 +1,22 @@
+package com.refconstructionopc.service;
+
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectJobDTO;
+import com.refconstructionopc.upload.UploadByteBudget;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProjectJobService {
+    /** The upload budget reservation, when given, is held until the job finishes. */
+    ProjectJobDTO submitCreate(String title, String description, String serviceType,
+                               MultipartFile thumbnail, List<MultipartFile> images, String submittedBy,
+                               UploadByteBudget.Reservation reservation) throws IOException;
+    /** Checks the manifest first (IllegalArgumentException); the result lists one outcome per item. */
+    ProjectJobDTO submitImport(List<ProjectImportItemDTO> items, String submittedBy,
+                               UploadByteBudget.Reservation reservation);
+    /** Empty when the job is unknown, expired, or was submitted by someone else. */
+    Optional<ProjectJobDTO> findJob(String jobId, String requestedBy);
+}
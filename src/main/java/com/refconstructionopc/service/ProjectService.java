@@ -1,14 +1,27 @@
 package com.refconstructionopc.service;
 
 
+import com.refconstructionopc.dto.CursorPageDTO;
 import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.dto.ProjectSummaryDTO;
+import com.refconstructionopc.dto.ServiceTypeFacetDTO;
+import com.refconstructionopc.upload.UploadProgressListener;
 import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProjectService {
     ProjectDTO create(String title, String description, String serviceType, MultipartFile thumbnail, List<MultipartFile> images) throws IOException;
+    ProjectDTO create(String title, String description, String serviceType, MultipartFile thumbnail, List<MultipartFile> images,
+                      UploadProgressListener progress) throws IOException;
+    ProjectDTO createFromStoredImages(String uniqueId, String title, String description, String serviceType,
+                                      String thumbnailKey, List<String> imageKeys);
     Page<ProjectDTO> findAllProject(String search,int page, int size);
+    CursorPageDTO<ProjectDTO> findAllProjectByCursor(String search, String cursor, int size);
+    Page<ProjectSummaryDTO> findAllProjectSummaries(String search, int page, int size);
+    List<ServiceTypeFacetDTO> getServiceTypeFacets(String search);
+    void exportAll(OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,197 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.model.AssetCleanup;
+import com.refconstructionopc.repository.AssetCleanupRepository;
+import com.refconstructionopc.repository.ImageAssetRepository;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageStorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Transactional outbox for Cloudinary deletes. Callers only insert rows; a scheduled worker
+ * drains due rows in batches of up to 100 with one delete_resources call each, removes the
+ * rows for ids that are gone and reschedules the rest with exponential backoff. A row can
+ * also be queued for later (enqueueAt) and cancelled until then, e.g. the slots of a
+ * direct-upload ticket that may yet be finalized.
+ *
+ * Deletes are idempotent ("not_found" counts as done), so two nodes draining the same row
+ * is harmless. Ids that image_assets still counts references for are never deleted: their
+ * rows are dropped instead (content re-registered since it was queued).
+ */
+@Service
+public class AssetCleanupServiceImpl implements AssetCleanupService {
+    private static final Logger log = LoggerFactory.getLogger(AssetCleanupServiceImpl.class);
+    private static final int MAX_BATCH = 100; // delete_resources limit
+    private static final int MAX_BATCHES_PER_RUN = 10; // leave the scheduler thread to other jobs
+
+    private final AssetCleanupRepository assetCleanupRepository;
+    private final ImageAssetRepository imageAssetRepository;
+    private final ImageStorageService imageStorageService;
+    private final TaskScheduler taskScheduler;
+    private final Counter enqueuedCounter;
+    private final Counter deletedCounter;
+    private final Counter rescheduledCounter;
+
+    @Value("${assets.cleanup.batch-size:100}")
+    private int batchSize;
+
+    @Value("${assets.cleanup.base-backoff-seconds:60}")
+    private long baseBackoffSeconds;
+
+    @Value("${assets.cleanup.max-backoff-minutes:60}")
+    private long maxBackoffMinutes;
+
+    public AssetCleanupServiceImpl(AssetCleanupRepository assetCleanupRepository,
+                                   ImageAssetRepository imageAssetRepository,
+                                   ImageStorageService imageStorageService,
+                                   TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.assetCleanupRepository = assetCleanupRepository;
+        this.imageAssetRepository = imageAssetRepository;
+        this.imageStorageService = imageStorageService;
+        this.taskScheduler = taskScheduler;
+        this.enqueuedCounter = Counter.builder("assets.cleanup.enqueued")
+                .description("Asset deletes written to the cleanup outbox")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("assets.cleanup.deleted")
+                .description("Outbox rows whose asset is gone")
+                .register(meterRegistry);
+        this.rescheduledCounter = Counter.builder("assets.cleanup.rescheduled")
+                .description("Outbox rows put back with backoff after a failed delete")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(Collection<String> publicIds) {
+        enqueueAt(publicIds, Instant.now());
+    }
+
+    @Override
+    @Transactional
+    public void enqueueAt(Collection<String> publicIds, Instant notBefore) {
+        Instant now = Instant.now();
+        List<AssetCleanup> rows = new ArrayList<>();
+        for (String publicId : publicIds) {
+            if (publicId == null || publicId.isBlank()) continue;
+            AssetCleanup row = new AssetCleanup();
+            row.setPublicId(publicId);
+            row.setNextAttemptAt(notBefore);
+            row.setCreatedAt(now);
+            rows.add(row);
+        }
+        assetCleanupRepository.saveAll(rows);
+        enqueuedCounter.increment(rows.size());
+    }
+
+    @Override
+    @Transactional
+    public void cancel(Collection<String> publicIds) {
+        if (publicIds.isEmpty()) return;
+        assetCleanupRepository.deleteByPublicIdIn(publicIds);
+    }
+
+    @Override
+    public void enqueueDetached(Collection<String> publicIds) {
+        if (publicIds.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            enqueue(publicIds);
+            return;
+        }
+        // Written once the caller's transaction is over, from another thread, so this
+        // never needs a second pooled connection while the caller still holds one
+        List<String> ids = List.copyOf(publicIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                taskScheduler.schedule(() -> enqueue(ids), Instant.now());
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${assets.cleanup.interval-ms:30000}")
+    public int drain() {
+        int size = Math.max(1, Math.min(batchSize, MAX_BATCH));
+        int removed = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            List<AssetCleanup> due = assetCleanupRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                    Instant.now(), PageRequest.of(0, size));
+            if (due.isEmpty()) break;
+            removed += process(due);
+            if (due.size() < size) break;
+        }
+        return removed;
+    }
+
+    private int process(List<AssetCleanup> due) {
+        Set<String> ids = new LinkedHashSet<>();
+        due.forEach(row -> ids.add(row.getPublicId()));
+
+        Set<String> referenced = new HashSet<>(imageAssetRepository.findReferenced(ids));
+        if (!referenced.isEmpty()) {
+            log.warn("Asset cleanup: skipping {} ids that are still referenced", referenced.size());
+            List<Long> skipped = new ArrayList<>();
+            for (AssetCleanup row : due) {
+                if (referenced.contains(row.getPublicId())) skipped.add(row.getId());
+            }
+            assetCleanupRepository.deleteAllByIdInBatch(skipped);
+            due = due.stream().filter(row -> !referenced.contains(row.getPublicId())).toList();
+            ids.removeAll(referenced);
+            if (due.isEmpty()) return 0;
+        }
+
+        Set<String> gone;
+        String error = null;
+        try {
+            gone = imageStorageService.deleteByKeys(ids);
+        } catch (Exception e) {
+            gone = Set.of();
+            error = e.toString();
+        }
+
+        List<Long> done = new ArrayList<>();
+        List<AssetCleanup> retry = new ArrayList<>();
+        Instant now = Instant.now();
+        for (AssetCleanup row : due) {
+            if (gone.contains(row.getPublicId())) {
+                done.add(row.getId());
+                continue;
+            }
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(now.plus(backoff(row.getAttempts())));
+            String reason = (error != null) ? error : "not deleted";
+            row.setLastError(reason.length() > 500 ? reason.substring(0, 500) : reason);
+            retry.add(row);
+        }
+        assetCleanupRepository.deleteAllByIdInBatch(done);
+        assetCleanupRepository.saveAll(retry);
+        deletedCounter.increment(done.size());
+        rescheduledCounter.increment(retry.size());
+
+        if (!retry.isEmpty()) {
+            log.warn("Asset cleanup: {} deleted, {} rescheduled ({})", done.size(), retry.size(),
+                    retry.get(0).getLastError());
+        }
+        return done.size();
+    }
+
+    private Duration backoff(int attempts) {
+        long seconds = baseBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, Duration.ofMinutes(maxBackoffMinutes).toSeconds()));
+    }
+}
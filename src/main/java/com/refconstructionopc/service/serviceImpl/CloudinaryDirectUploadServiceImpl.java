@@ -0,0 +1,250 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.api.exceptions.GeneralError;
+import com.cloudinary.api.exceptions.RateLimited;
+import com.cloudinary.utils.ObjectUtils;
+import com.refconstructionopc.dto.DirectUploadFinalizeDTO;
+import com.refconstructionopc.dto.DirectUploadSlotDTO;
+import com.refconstructionopc.dto.DirectUploadTicketDTO;
+import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.DirectUploadService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Signed uploads straight from the client to Cloudinary, so image bytes never pass through
+ * this backend.
+ *
+ * sign() hands out one upload signature per slot. Each signature binds a fixed public_id
+ * under cloudinary.folder/<uniqueId>/, overwrite=false and the allowed formats, so a client
+ * can store at most the signed number of images, only where the project expects them, and
+ * never replace an image once stored. Cloudinary refuses signatures whose timestamp is over
+ * an hour old. A ticket, signed with the API secret, carries the project id, slot count and
+ * expiry, so finalizing needs no server state and works on any node.
+ *
+ * Every slot is queued in the cleanup outbox at signing, due once its signature can no
+ * longer be used. finalizeUpload() checks the ticket, looks the slots up with the Admin API
+ * (present, within the size limit, an allowed format), then writes the project rows and
+ * cancels the deletes of the slots it used in the same transaction. Slots of tickets never
+ * finalized, and unused slots, are deleted when due.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryDirectUploadServiceImpl implements DirectUploadService {
+    private static final Logger log = LoggerFactory.getLogger(CloudinaryDirectUploadServiceImpl.class);
+    private static final int MAX_LOOKUP_BATCH = 100; // resources by public_ids limit
+    private static final Duration SIGNATURE_LIFETIME = Duration.ofHours(1);
+    // Lets an upload started just before the signature expired finish before its slot is swept
+    private static final Duration SWEEP_GRACE = Duration.ofMinutes(15);
+
+    private final Cloudinary cloudinary;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryPolicy retryPolicy;
+    private final ProjectService projectService;
+    private final AssetCleanupService assetCleanupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cloudinary.folder:uploads}")
+    private String baseFolder;
+
+    // At most 60: Cloudinary rejects upload signatures older than an hour
+    @Value("${uploads.direct.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${uploads.direct.max-images:50}")
+    private int maxImages;
+
+    @Value("${uploads.direct.allowed-formats:jpg,jpeg,png,webp}")
+    private String allowedFormats;
+
+    @Value("${spring.servlet.multipart.max-file-size:25MB}")
+    private DataSize maxFileSize;
+
+    public CloudinaryDirectUploadServiceImpl(Cloudinary cloudinary, AdaptiveConcurrencyLimiter limiter,
+                                             RetryPolicy retryPolicy, ProjectService projectService,
+                                             AssetCleanupService assetCleanupService,
+                                             PlatformTransactionManager transactionManager) {
+        this.cloudinary = cloudinary;
+        this.limiter = limiter;
+        this.retryPolicy = retryPolicy;
+        this.projectService = projectService;
+        this.assetCleanupService = assetCleanupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public DirectUploadTicketDTO sign(int imageCount) {
+        if (imageCount < 1 || imageCount > maxImages) {
+            throw new IllegalArgumentException("imageCount must be between 1 and " + maxImages);
+        }
+        String uniqueId = UUID.randomUUID().toString();
+        long timestamp = Instant.now().getEpochSecond();
+        long expiresAt = timestamp + Duration.ofMinutes(Math.min(ttlMinutes, 60)).toSeconds();
+
+        DirectUploadTicketDTO dto = new DirectUploadTicketDTO();
+        dto.setUniqueId(uniqueId);
+        dto.setUploadUrl(cloudinary.cloudinaryApiUrl("upload", ObjectUtils.asMap("resource_type", "image")));
+        dto.setApiKey(cloudinary.config.apiKey);
+        dto.setTimestamp(timestamp);
+        dto.setAllowedFormats(allowedFormats);
+        dto.setOverwrite(false);
+        dto.setMaxFileSizeBytes(maxFileSize.toBytes());
+        dto.setImageCount(imageCount);
+        dto.setExpiresAt(expiresAt);
+        dto.setTicket(ticket(uniqueId, imageCount, expiresAt));
+        dto.setThumbnail(slot(thumbnailId(uniqueId), timestamp));
+        List<DirectUploadSlotDTO> images = new ArrayList<>();
+        for (int i = 1; i <= imageCount; i++) images.add(slot(imageId(uniqueId, i), timestamp));
+        dto.setImages(images);
+
+        assetCleanupService.enqueueAt(slotIds(uniqueId, imageCount),
+                Instant.ofEpochSecond(timestamp).plus(SIGNATURE_LIFETIME).plus(SWEEP_GRACE));
+        return dto;
+    }
+
+    @Override
+    public ProjectDTO finalizeUpload(DirectUploadFinalizeDTO request) throws IOException {
+        String uniqueId = request.getUniqueId();
+        if (uniqueId == null || !MessageDigest.isEqual(
+                ticket(uniqueId, request.getImageCount(), request.getExpiresAt()).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(request.getTicket()).getBytes(StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Invalid upload ticket");
+        }
+        if (Instant.now().getEpochSecond() > request.getExpiresAt()) {
+            throw new IllegalArgumentException("Upload ticket expired");
+        }
+
+        // Only this ticket's slots, each at most once
+        Set<String> expected = new HashSet<>();
+        for (int i = 1; i <= request.getImageCount(); i++) expected.add(imageId(uniqueId, i));
+        if (!thumbnailId(uniqueId).equals(request.getThumbnailPublicId())) {
+            throw new IllegalArgumentException("thumbnailPublicId is not this ticket's thumbnail slot");
+        }
+        List<String> imageIds = request.getImagePublicIds();
+        if (imageIds == null || imageIds.isEmpty()) {
+            throw new IllegalArgumentException("images are required and must not be empty");
+        }
+        for (String id : imageIds) {
+            if (!expected.remove(id)) {
+                throw new IllegalArgumentException("Not a slot of this ticket, or repeated: " + id);
+            }
+        }
+
+        List<String> all = new ArrayList<>();
+        all.add(request.getThumbnailPublicId());
+        all.addAll(imageIds);
+        Map<String, Map<?, ?>> stored = lookup(all);
+
+        List<String> missing = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        Set<String> formats = new HashSet<>(Arrays.asList(allowedFormats.toLowerCase(Locale.ROOT).split(",")));
+        for (String id : all) {
+            Map<?, ?> resource = stored.get(id);
+            if (resource == null) {
+                missing.add(id);
+                continue;
+            }
+            long bytes = ((Number) resource.get("bytes")).longValue();
+            String format = String.valueOf(resource.get("format")).toLowerCase(Locale.ROOT);
+            if (bytes > maxFileSize.toBytes() || !formats.contains(format)) rejected.add(id);
+        }
+        if (!rejected.isEmpty()) {
+            // The whole ticket is void: delete every slot now, the client asks for a new ticket
+            assetCleanupService.enqueue(slotIds(uniqueId, request.getImageCount()));
+            throw new IllegalArgumentException("Too large or not an allowed format: " + rejected);
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Not uploaded yet: " + missing);
+        }
+
+        // Unused slots keep their pending delete, in case the client uploads one later
+        ProjectDTO project = transactionTemplate.execute(status -> {
+            ProjectDTO created = projectService.createFromStoredImages(uniqueId, request.getTitle(),
+                    request.getDescription(), request.getServiceType(), request.getThumbnailPublicId(), imageIds);
+            assetCleanupService.cancel(all);
+            return created;
+        });
+        log.info("Finalized direct upload {} ({} images)", uniqueId, imageIds.size());
+        return project;
+    }
+
+    private DirectUploadSlotDTO slot(String publicId, long timestamp) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("timestamp", timestamp);
+        params.put("public_id", publicId);
+        params.put("overwrite", false);
+        params.put("allowed_formats", allowedFormats);
+        DirectUploadSlotDTO slot = new DirectUploadSlotDTO();
+        slot.setPublicId(publicId);
+        slot.setSignature(cloudinary.apiSignRequest(params, cloudinary.config.apiSecret));
+        return slot;
+    }
+
+    // Signed with the API secret like upload parameters; "purpose" keeps it from being valid as one
+    private String ticket(String uniqueId, int imageCount, long expiresAt) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("purpose", "project_direct_upload");
+        params.put("unique_id", uniqueId);
+        params.put("image_count", imageCount);
+        params.put("expires_at", expiresAt);
+        return cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+    }
+
+    private Map<String, Map<?, ?>> lookup(List<String> publicIds) throws IOException {
+        Map<String, Map<?, ?>> found = new HashMap<>();
+        for (int from = 0; from < publicIds.size(); from += MAX_LOOKUP_BATCH) {
+            List<String> batch = publicIds.subList(from, Math.min(from + MAX_LOOKUP_BATCH, publicIds.size()));
+            Map<?, ?> res = retryPolicy.execute("Cloudinary resources", () -> limiter.execute(() -> {
+                try {
+                    return cloudinary.api().resourcesByIds(batch, ObjectUtils.asMap("resource_type", "image"));
+                } catch (RateLimited | GeneralError e) {
+                    throw new IOException(e.getMessage(), e); // transient: retried and fed to the limiter
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }));
+            // {"resources": [{"public_id": ..., "bytes": ..., "format": ...}, ...]}; unknown ids are left out
+            if (res.get("resources") instanceof List<?> resources) {
+                for (Object r : resources) {
+                    if (r instanceof Map<?, ?> resource) found.put((String) resource.get("public_id"), resource);
+                }
+            }
+        }
+        return found;
+    }
+
+    private List<String> slotIds(String uniqueId, int imageCount) {
+        List<String> ids = new ArrayList<>(imageCount + 1);
+        ids.add(thumbnailId(uniqueId));
+        for (int i = 1; i <= imageCount; i++) ids.add(imageId(uniqueId, i));
+        return ids;
+    }
+
+    private String thumbnailId(String uniqueId) {
+        return baseFolder + "/" + uniqueId + "/thumbnail";
+    }
+
+    private String imageId(String uniqueId, int index) {
+        return baseFolder + "/" + uniqueId + "/image-" + index;
+    }
+}
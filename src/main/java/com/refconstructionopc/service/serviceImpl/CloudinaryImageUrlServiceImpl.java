@@ -0,0 +1,69 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Transformation;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.refconstructionopc.dto.ImageUrlsDTO;
+import com.refconstructionopc.service.ImageUrlService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Responsive Cloudinary delivery URLs: one variant per images.responsive.widths, each
+ * w_<width>,c_limit (never upscaled) with f_auto and q_auto, so browsers get a modern
+ * format at a size that fits the viewport. Signing is not needed for delivery, so the
+ * URLs are pure string building; they are memoized in a bounded Caffeine cache anyway,
+ * since a listing page builds them for every thumbnail on every miss of the page cache.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageUrlServiceImpl implements ImageUrlService {
+
+    private final Cloudinary cloudinary;
+    private final List<Integer> widths;
+    private final int defaultWidth;
+    private final Cache<String, ImageUrlsDTO> cache;
+
+    public CloudinaryImageUrlServiceImpl(Cloudinary cloudinary,
+                                         @Value("${images.responsive.widths:320,640,960,1280,1920}") List<Integer> widths,
+                                         @Value("${images.responsive.default-width:960}") int defaultWidth,
+                                         @Value("${images.responsive.cache-max-size:20000}") long cacheMaxSize,
+                                         MeterRegistry meterRegistry) {
+        this.cloudinary = cloudinary;
+        this.widths = widths.stream().distinct().sorted().toList();
+        this.defaultWidth = defaultWidth;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "imageUrls");
+    }
+
+    @Override
+    public ImageUrlsDTO urls(String publicId) {
+        if (publicId == null || publicId.isBlank()) return null;
+        return cache.get(publicId, this::build);
+    }
+
+    private ImageUrlsDTO build(String publicId) {
+        StringJoiner srcset = new StringJoiner(", ");
+        for (int width : widths) srcset.add(url(publicId, width) + " " + width + "w");
+        return new ImageUrlsDTO(url(publicId, defaultWidth), srcset.toString());
+    }
+
+    private String url(String publicId, int width) {
+        return cloudinary.url()
+                .secure(true)
+                .transformation(new Transformation<>()
+                        .width(width).crop("limit")
+                        .fetchFormat("auto").quality("auto"))
+                .generate(publicId);
+    }
+}
@@ -1,18 +1,45 @@
 package com.refconstructionopc.service.serviceImpl;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.exceptions.GeneralError;
+import com.cloudinary.api.exceptions.RateLimited;
 import com.cloudinary.utils.ObjectUtils;
-import com.refconstructionopc.service.CloudinaryService;
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import com.refconstructionopc.upload.SpooledUpload;
+import com.refconstructionopc.upload.UploadMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Every call to Cloudinary goes through cloudinaryLimiter, which adapts how many run at once,
+// and is retried on transient failures by cloudinaryRetryPolicy (backoff sleeps hold no slot)
 @Service
-public class CloudinaryServiceImpl implements CloudinaryService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryServiceImpl implements ImageStorageService {
+    private static final int MAX_DELETE_BATCH = 100;
+
     private final Cloudinary cloudinary;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final RetryPolicy retryPolicy;
+    private final UploadMetrics metrics;
 
     @Value("${cloudinary.folder:uploads}")
     private String baseFolder;
@@ -22,16 +49,29 @@ public class CloudinaryServiceImpl implements CloudinaryService {
 
     @Value("${uploads.large-threshold-bytes:8000000}") // 8 MB
     private long largeThreshold;
-    public CloudinaryServiceImpl(Cloudinary cloudinary) {
+
+    @Value("${uploads.chunk-size-bytes:6000000}") // ~6 MB chunks for uploadLarge
+    private int chunkSize;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/project-uploads}")
+    private String spoolDir;
+
+    public CloudinaryServiceImpl(Cloudinary cloudinary, AdaptiveConcurrencyLimiter limiter, RetryPolicy retryPolicy,
+                                 MeterRegistry meterRegistry) {
         this.cloudinary = cloudinary;
+        this.limiter = limiter;
+        this.retryPolicy = retryPolicy;
+        this.metrics = new UploadMetrics(meterRegistry, "cloudinary");
     }
     @Override
     public String uploadAndGetKey(MultipartFile file, String subFolder) throws IOException {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is empty");
         }
-        // Delegate to the byte[] overload to keep logic in one place
-        return uploadAndGetKey(file.getBytes(), subFolder);
+        // Spool to disk and stream from there; getBytes() would copy the whole part onto the heap
+        try (SpooledUpload spooled = SpooledUpload.of(file, spoolDirectory())) {
+            return uploadFile(spooled.path(), subFolder);
+        }
     }
 
     @Override
@@ -39,70 +79,164 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         if (bytes == null || bytes.length == 0) {
             throw new IllegalArgumentException("Bytes are empty");
         }
-        String folder = (subFolder == null || subFolder.isBlank())
-                ? baseFolder
-                : baseFolder + "/" + subFolder;
-
-        Map<?, ?> res = cloudinary.uploader().upload(
-                bytes,
-                ObjectUtils.asMap(
-                        "folder", folder,
-                        "resource_type", "image",
-                        "use_filename", true,
-                        "unique_filename", true,
-                        "overwrite", false
-                )
-        );
-        return (String) res.get("public_id");
+        return metrics.record(UploadMetrics.SMALL, bytes.length, () -> {
+            Map<?, ?> res = call("upload", bytes.length,
+                    () -> cloudinary.uploader().upload(bytes, smallUploadOptions(subFolder)));
+            return (String) res.get("public_id");
+        });
     }
     @Override
     public String uploadAndGetKeyLarge(InputStream in, String subFolder) throws IOException {
         if (in == null) throw new IllegalArgumentException("InputStream is null");
-        Map<?, ?> res = cloudinary.uploader().uploadLarge(
-                in,
-                ObjectUtils.asMap(
-                        "folder", folderPath(subFolder),
-                        "resource_type", "image",
-                        "chunk_size", 6_000_000, // ~6 MB chunks; tune as needed
-                        "use_filename", true,
-                        "unique_filename", true,
-                        "overwrite", false
-                )
-        );
-        return (String) res.get("public_id");
+        // A stream cannot be rewound for a resend, so spool it and upload the file in chunks
+        Files.createDirectories(spoolDirectory());
+        Path spooled = spoolDirectory().resolve("stream-" + UUID.randomUUID());
+        try {
+            Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return uploadChunked(spooled, smallUploadOptions(subFolder));
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
     }
     @Override
     public String smartUpload(MultipartFile file, String subFolder) throws IOException {
-        if (file.getSize() > largeThreshold) {
-            try (var in = file.getInputStream()) {
-                // chunked; good for big files and flaky networks
-                Map<?, ?> res = cloudinary.uploader().uploadLarge(in, ObjectUtils.asMap(
-                        "folder", folderPath(subFolder),
-                        "resource_type", "image",
-                        "chunk_size", 6_000_000
-                ));
-                return (String) res.get("public_id");
-            }
+        if (file instanceof SpooledUpload spooled) {
+            return smartUpload(spooled.path(), subFolder); // already on disk; owner deletes it
+        }
+        try (SpooledUpload spooled = SpooledUpload.of(file, spoolDirectory())) {
+            return smartUpload(spooled.path(), subFolder);
         }
-        return uploadAndGetKey(file.getBytes(), subFolder); // your fast path for small files
     }
+
+    @Override
+    public String smartUpload(Path file, String subFolder) throws IOException {
+        if (Files.size(file) > largeThreshold) {
+            // chunked; good for big files and flaky networks. Heap use is bounded by chunk_size
+            return uploadChunked(file, ObjectUtils.asMap(
+                    "folder", folderPath(subFolder),
+                    "resource_type", "image"
+            ));
+        }
+        return uploadFile(file, subFolder);
+    }
+
+    // A File is sent as a streamed multipart body part, read from disk as the request is written
+    private String uploadFile(Path file, String subFolder) throws IOException {
+        long size = Files.size(file);
+        return metrics.record(UploadMetrics.SMALL, size, () -> {
+            Map<?, ?> res = call("upload", size,
+                    () -> cloudinary.uploader().upload(file.toFile(), smallUploadOptions(subFolder)));
+            return (String) res.get("public_id");
+        });
+    }
+
+    /**
+     * Cloudinary's chunked protocol: every chunk is a separate upload call carrying the same
+     * X-Unique-Upload-Id and its own Content-Range. Unlike the SDK's uploadLarge, each chunk
+     * is retried on its own, so a transient failure resumes at the last acknowledged chunk
+     * instead of re-sending the whole file.
+     */
+    private String uploadChunked(Path file, Map<?, ?> options) throws IOException {
+        long total = Files.size(file);
+        return metrics.record(UploadMetrics.LARGE, total, () -> uploadChunks(file, total, options));
+    }
+
+    private String uploadChunks(Path file, long total, Map<?, ?> options) throws IOException {
+        String uploadId = cloudinary.randomPublicId();
+        Map<String, Object> params = cloudinary.uploader().buildUploadParams(options);
+        byte[] buffer = new byte[(int) Math.min(chunkSize, Math.max(total, 1))];
+
+        Map<?, ?> res = null;
+        try (InputStream in = Files.newInputStream(file)) {
+            long offset = 0;
+            do {
+                int n = in.readNBytes(buffer, 0, buffer.length);
+                byte[] chunk = (n == buffer.length) ? buffer : Arrays.copyOf(buffer, n);
+                String range = String.format(Locale.US, "bytes %d-%d/%d", offset, offset + n - 1, total);
+
+                Map<String, Object> chunkOptions = new HashMap<>();
+                for (Map.Entry<?, ?> e : options.entrySet()) chunkOptions.put((String) e.getKey(), e.getValue());
+                chunkOptions.put("extra_headers", Map.of("X-Unique-Upload-Id", uploadId, "Content-Range", range));
+                res = call("chunk " + range, n, () ->
+                        cloudinary.uploader().callApi("upload", new HashMap<>(params), chunkOptions, chunk));
+                offset += n;
+            } while (offset < total);
+        }
+        return (String) res.get("public_id");
+    }
+
+    private Map<?, ?> call(String what, AdaptiveConcurrencyLimiter.Call<Map<?, ?>> call) throws IOException {
+        return call(what, 0, call);
+    }
+
+    // bytes: the payload sent, so the limiter judges an upload's latency by its size
+    private Map<?, ?> call(String what, long bytes, AdaptiveConcurrencyLimiter.Call<Map<?, ?>> call)
+            throws IOException {
+        return retryPolicy.execute("Cloudinary " + what, () -> limiter.execute(bytes, call));
+    }
+
     @Override
     public boolean deleteByKey(String publicId) throws IOException {
         if (publicId == null || publicId.isBlank()) return false;
 
         // If you only ever upload images, this is enough:
-        Map<?, ?> res = cloudinary.uploader().destroy(
+        Map<?, ?> res = call("destroy", () -> cloudinary.uploader().destroy(
                 publicId,
                 ObjectUtils.asMap(
                         "invalidate", true,     // purge cached versions on the CDN
                         "resource_type", "image"
                 )
-        );
+        ));
 
         Object result = res.get("result"); // "ok", "not found", "error"
         return "ok".equals(result) || "not found".equals(result);
     }
 
+    @Override
+    public Set<String> deleteByKeys(Collection<String> publicIds) throws IOException {
+        if (publicIds == null || publicIds.isEmpty()) return Set.of();
+        if (publicIds.size() > MAX_DELETE_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_DELETE_BATCH + " ids per delete");
+        }
+        Map<?, ?> res = call("delete_resources", () -> {
+            try {
+                return cloudinary.api().deleteResources(publicIds, ObjectUtils.asMap(
+                        "invalidate", true,
+                        "resource_type", "image"
+                ));
+            } catch (RateLimited | GeneralError e) {
+                throw new IOException(e.getMessage(), e); // transient: retried and fed to the limiter
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        });
+
+        // {"deleted": {"<public_id>": "deleted" | "not_found" | ...}}
+        Set<String> gone = new HashSet<>();
+        if (res.get("deleted") instanceof Map<?, ?> deleted) {
+            deleted.forEach((id, status) -> {
+                if ("deleted".equals(status) || "not_found".equals(status)) gone.add((String) id);
+            });
+        }
+        return gone;
+    }
+
+    private Map<String, Object> smallUploadOptions(String subFolder) {
+        return ObjectUtils.asMap(
+                "folder", folderPath(subFolder),
+                "resource_type", "image",
+                "use_filename", true,
+                "unique_filename", true,
+                "overwrite", false
+        );
+    }
+
+    private Path spoolDirectory() {
+        return Path.of(spoolDir);
+    }
+
     private String folderPath(String subFolder) {
         return (subFolder == null || subFolder.isBlank()) ? baseFolder : baseFolder + "/" + subFolder;
     }
@@ -0,0 +1,181 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.model.ImageAsset;
+import com.refconstructionopc.repository.ImageAssetRepository;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.service.ImageAssetService;
+import com.refconstructionopc.upload.ImageNormalizer;
+import com.refconstructionopc.upload.PendingImage;
+import com.refconstructionopc.upload.SpooledUpload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Content-addressed image storage: identical files share one stored asset.
+ *
+ * A create runs in three steps. prepare() spools and hashes the files (SHA-256, streamed
+ * from disk) and looks the hashes up; upload() sends only unseen content and touches no
+ * database, so upload threads never wait for a connection; it passes each file through the
+ * optional ImageNormalizer first. reference() then records the references in the
+ * caller's transaction, next to the project rows, so a rollback also
+ * undoes them. release() drops a reference and, once nothing references the stored file,
+ * removes its row and queues its delete in the cleanup outbox within the same transaction.
+ * The outbox also skips any id that is still referenced, so a stored file is only deleted
+ * once no project uses it.
+ */
+@Service
+public class ImageAssetServiceImpl implements ImageAssetService {
+    private static final Logger log = LoggerFactory.getLogger(ImageAssetServiceImpl.class);
+    private static final int HASH_BUFFER = 64 * 1024;
+
+    private final ImageStorageService imageStorageService;
+    private final ImageAssetRepository imageAssetRepository;
+    private final ImageNormalizer imageNormalizer;
+    private final AssetCleanupService assetCleanupService;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/project-uploads}")
+    private String spoolDir;
+
+    public ImageAssetServiceImpl(ImageStorageService imageStorageService, ImageAssetRepository imageAssetRepository,
+                                 ImageNormalizer imageNormalizer, AssetCleanupService assetCleanupService) {
+        this.imageStorageService = imageStorageService;
+        this.imageAssetRepository = imageAssetRepository;
+        this.imageNormalizer = imageNormalizer;
+        this.assetCleanupService = assetCleanupService;
+    }
+
+    @Override
+    public List<PendingImage> prepare(List<MultipartFile> files, String subFolder) throws IOException {
+        List<SpooledUpload> spooled = new ArrayList<>();
+        List<String> hashes = new ArrayList<>();
+        try {
+            for (MultipartFile f : files) {
+                SpooledUpload s = (f instanceof SpooledUpload su) ? su : SpooledUpload.of(f, Path.of(spoolDir));
+                spooled.add(s);
+                hashes.add(sha256(s.path()));
+            }
+        } catch (IOException | RuntimeException e) {
+            spooled.forEach(SpooledUpload::close);
+            throw e;
+        }
+
+        Map<String, String> stored = new HashMap<>();
+        for (ImageAsset a : imageAssetRepository.findAllById(new HashSet<>(hashes))) {
+            stored.put(a.getContentHash(), a.getPublicId());
+        }
+
+        Map<String, PendingImage> firstByHash = new HashMap<>();
+        List<PendingImage> pending = new ArrayList<>(spooled.size());
+        for (int i = 0; i < spooled.size(); i++) {
+            String hash = hashes.get(i);
+            PendingImage p = new PendingImage(spooled.get(i), hash, subFolder, firstByHash.get(hash), stored.get(hash));
+            firstByHash.putIfAbsent(hash, p);
+            pending.add(p);
+        }
+        return pending;
+    }
+
+    @Override
+    public void upload(PendingImage image) throws IOException {
+        if (!image.needsUpload()) return;
+        image.setUploadedPublicId(store(image));
+    }
+
+    @Override
+    @Transactional
+    public String reference(PendingImage image) throws IOException {
+        String hash = image.contentHash();
+
+        if (image.uploadedPublicId() == null) {
+            // Stored already, or repeated in this request (its first copy is registered by now)
+            String existing = incrementAndGet(hash);
+            if (existing != null) {
+                if (image.duplicateOf() == null) log.info("Dedup hit {} -> {}", hash, existing);
+                return existing;
+            }
+            // Released since prepare(): store it after all
+            image.setUploadedPublicId(store(image));
+        }
+
+        String ours = image.uploadedPublicId();
+        if (imageAssetRepository.insertIfAbsent(hash, ours, image.size(), Instant.now()) > 0) {
+            return ours;
+        }
+
+        // A concurrent create stored the same content first: share its copy, drop ours
+        String winner = incrementAndGet(hash);
+        if (winner == null) {
+            throw new IllegalStateException("Image asset " + hash + " vanished while being registered");
+        }
+        image.setUploadedPublicId(null);
+        assetCleanupService.enqueueDetached(List.of(ours));
+        return winner;
+    }
+
+    // Failure path: the references were never committed, only remove what this create uploaded
+    @Override
+    public void discard(PendingImage image) {
+        String ours = image.takeUploadedPublicId();
+        if (ours != null) assetCleanupService.enqueueDetached(List.of(ours));
+    }
+
+    @Override
+    @Transactional
+    public void release(String publicId) {
+        if (publicId == null || publicId.isBlank()) return;
+
+        if (imageAssetRepository.findByPublicId(publicId).isEmpty()) {
+            // Uploaded before deduplication existed: owned by a single project
+            assetCleanupService.enqueue(List.of(publicId));
+            return;
+        }
+        imageAssetRepository.decrementRefCount(publicId);
+        if (imageAssetRepository.deleteIfUnreferenced(publicId) > 0) {
+            assetCleanupService.enqueue(List.of(publicId));
+        }
+    }
+
+    // Hashing happened on the original bytes, so re-uploads of the same photo still dedupe
+    private String store(PendingImage image) throws IOException {
+        Path normalized = imageNormalizer.normalize(image.path());
+        try {
+            return imageStorageService.smartUpload(normalized != null ? normalized : image.path(), image.subFolder());
+        } finally {
+            if (normalized != null) Files.deleteIfExists(normalized);
+        }
+    }
+
+    private String incrementAndGet(String hash) {
+        if (imageAssetRepository.incrementRefCount(hash) == 0) return null;
+        return imageAssetRepository.findById(hash).map(ImageAsset::getPublicId).orElse(null);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buf = new byte[HASH_BUFFER];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) digest.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
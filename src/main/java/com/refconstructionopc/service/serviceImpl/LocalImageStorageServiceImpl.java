@@ -0,0 +1,163 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.upload.SpooledUpload;
+import com.refconstructionopc.upload.UploadMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Images on this node's disk (storage.backend=local): a fast, deterministic backend for
+ * performance suites and small self-hosted installs.
+ *
+ * Files live under storage.local.root, sharded into two directory levels by the SHA-256 of
+ * the key (root/ab/cd/abcd....jpg) so no directory grows past a few thousand entries.
+ * Content is copied with FileChannel.transferFrom, which the JDK hands to the kernel for
+ * file-to-file copies, and written under a temporary name then moved into place, so a
+ * reader never sees a partial file. StorageController serves the files back.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalImageStorageServiceImpl implements ImageStorageService {
+    private static final Pattern EXTENSION = Pattern.compile("(\\.[A-Za-z0-9]{1,8})$");
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    @Value("${storage.local.root:${java.io.tmpdir}/project-images}")
+    private String root;
+
+    @Value("${storage.local.folder:uploads}")
+    private String baseFolder;
+
+    private final UploadMetrics metrics;
+
+    public LocalImageStorageServiceImpl(MeterRegistry meterRegistry) {
+        this.metrics = new UploadMetrics(meterRegistry, "local");
+    }
+
+    @Override
+    public String uploadAndGetKey(MultipartFile file, String subFolder) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        return smartUpload(file, subFolder);
+    }
+
+    @Override
+    public String uploadAndGetKey(byte[] bytes, String subFolder) throws IOException {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Bytes are empty");
+        }
+        return store(Channels.newChannel(new ByteArrayInputStream(bytes)), subFolder, "", UploadMetrics.SMALL);
+    }
+
+    @Override
+    public String smartUpload(MultipartFile file, String subFolder) throws IOException {
+        if (file instanceof SpooledUpload spooled) {
+            return smartUpload(spooled.path(), subFolder);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(Channels.newChannel(in), subFolder, extension(file.getOriginalFilename()), UploadMetrics.SMALL);
+        }
+    }
+
+    @Override
+    public String smartUpload(Path file, String subFolder) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return store(in, subFolder, extension(file.getFileName().toString()), UploadMetrics.SMALL);
+        }
+    }
+
+    @Override
+    public String uploadAndGetKeyLarge(InputStream in, String subFolder) throws IOException {
+        if (in == null) throw new IllegalArgumentException("InputStream is null");
+        return store(Channels.newChannel(in), subFolder, "", UploadMetrics.LARGE);
+    }
+
+    @Override
+    public boolean deleteByKey(String publicId) throws IOException {
+        if (publicId == null || publicId.isBlank()) return false;
+        Files.deleteIfExists(resolve(publicId));
+        return true;
+    }
+
+    @Override
+    public Set<String> deleteByKeys(Collection<String> publicIds) throws IOException {
+        Set<String> gone = new HashSet<>();
+        for (String publicId : publicIds) {
+            if (deleteByKey(publicId)) gone.add(publicId);
+        }
+        return gone;
+    }
+
+    /** The stored file for a key, if present. */
+    public Optional<Path> find(String publicId) {
+        if (publicId == null || publicId.isBlank()) return Optional.empty();
+        Path file = resolve(publicId);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private String store(ReadableByteChannel source, String subFolder, String extension,
+                         String metricPath) throws IOException {
+        Timer.Sample sample = metrics.start();
+        String folder = (subFolder == null || subFolder.isBlank()) ? baseFolder : baseFolder + "/" + subFolder;
+        String key = folder + "/" + UUID.randomUUID() + extension;
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        long position = 0;
+        try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long n;
+            // Returns 0 once the source is exhausted
+            while ((n = out.transferFrom(source, position, TRANSFER_CHUNK)) > 0) position += n;
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            metrics.failure(sample, metricPath);
+            throw e;
+        }
+        metrics.success(sample, metricPath, position);
+        return key;
+    }
+
+    // Keys are hashed, so nothing in a key can escape the root directory
+    private Path resolve(String key) {
+        String hash = sha256(key);
+        return Path.of(root, hash.substring(0, 2), hash.substring(2, 4), hash + extension(key));
+    }
+
+    private static String extension(String name) {
+        if (name == null) return "";
+        Matcher m = EXTENSION.matcher(name);
+        return m.find() ? m.group(1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.dto.ImageUrlsDTO;
+import com.refconstructionopc.service.ImageUrlService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+// The local backend stores originals only: every image has a single URL, served by StorageController
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalImageUrlServiceImpl implements ImageUrlService {
+
+    @Override
+    public ImageUrlsDTO urls(String publicId) {
+        if (publicId == null || publicId.isBlank()) return null;
+        return new ImageUrlsDTO("/api/storage/" + publicId, null);
+    }
+}
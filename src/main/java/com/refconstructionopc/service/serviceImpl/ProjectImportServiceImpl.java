@@ -0,0 +1,391 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectImportItemResultDTO;
+import com.refconstructionopc.dto.ProjectImportResultDTO;
+import com.refconstructionopc.enums.ProjectImportStatus;
+import com.refconstructionopc.event.ProjectCreatedEvent;
+import com.refconstructionopc.repository.ServiceTypeCountRepository;
+import com.refconstructionopc.service.ImageAssetService;
+import com.refconstructionopc.service.ProjectImportService;
+import com.refconstructionopc.upload.PendingImage;
+import com.refconstructionopc.upload.RemoteImageFetcher;
+import com.refconstructionopc.upload.SpooledUpload;
+import com.refconstructionopc.upload.UploadProgressListener;
+import com.refconstructionopc.validators.ProjectDataValidators;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports projects whose images are fetched by URL, in chunks of imports.batch-size.
+ *
+ * Per chunk, imports.parallelism lanes take projects off one queue and fetch, hash and upload
+ * their images, so many projects are in flight at once instead of one create per request.
+ * The calling thread (a project job worker) is always one lane; the others run on the small
+ * projectImportExecutor, kept apart from the imageUploadExecutor that serves creates. When
+ * that pool is full the chunk just runs with fewer lanes. The projects whose images all made
+ * it are then written in one short transaction with JDBC batches: the IDENTITY ids keep
+ * Hibernate from batching inserts, so create()'s one-project-at-a-time save would cost a
+ * round trip per row.
+ */
+@Service
+public class ProjectImportServiceImpl implements ProjectImportService {
+    private static final Logger log = LoggerFactory.getLogger(ProjectImportServiceImpl.class);
+
+    private static final String INSERT_PROJECT = """
+            INSERT INTO projects (unique_id, title, description, service_type, thumbnail_image, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_IMAGE = "INSERT INTO project_images (image_url, project_id) VALUES (?, ?)";
+
+    private final RemoteImageFetcher remoteImageFetcher;
+    private final ImageAssetService imageAssetService;
+    private final AsyncTaskExecutor projectImportExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ServiceTypeCountRepository serviceTypeCountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter importedItems;
+    private final Counter failedItems;
+
+    @Value("${imports.max-items:200}")
+    private int maxItems;
+
+    // Projects written per transaction
+    @Value("${imports.batch-size:25}")
+    private int batchSize;
+
+    // Projects of one import whose images are fetched and uploaded at once, the caller included
+    @Value("${imports.parallelism:4}")
+    private int parallelism;
+
+    // Projects not done by then are reported failed; a late one's uploads are discarded when it ends
+    @Value("${imports.chunk-timeout-seconds:600}")
+    private long chunkTimeoutSeconds;
+
+    public ProjectImportServiceImpl(RemoteImageFetcher remoteImageFetcher, ImageAssetService imageAssetService,
+                                    @Qualifier("projectImportExecutor") AsyncTaskExecutor projectImportExecutor,
+                                    JdbcTemplate jdbcTemplate, ServiceTypeCountRepository serviceTypeCountRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.remoteImageFetcher = remoteImageFetcher;
+        this.imageAssetService = imageAssetService;
+        this.projectImportExecutor = projectImportExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.serviceTypeCountRepository = serviceTypeCountRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.importedItems = itemCounter(meterRegistry, "imported");
+        this.failedItems = itemCounter(meterRegistry, "failed");
+    }
+
+    private static Counter itemCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("projects.import.items")
+                .description("Projects processed by batch imports")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // A project whose images are uploaded and waiting for its rows
+    private record Staged(String uniqueId, List<PendingImage> images) {
+    }
+
+    @Override
+    public void checkManifest(List<ProjectImportItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one project is required");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " projects per import");
+        }
+    }
+
+    @Override
+    public ProjectImportResultDTO importProjects(List<ProjectImportItemDTO> items) {
+        return importProjects(items, UploadProgressListener.NONE);
+    }
+
+    @Override
+    public ProjectImportResultDTO importProjects(List<ProjectImportItemDTO> items, UploadProgressListener progress) {
+        checkManifest(items);
+        long t0 = System.nanoTime();
+        ProjectImportItemResultDTO[] results = new ProjectImportItemResultDTO[items.size()];
+
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ProjectImportItemDTO item = items.get(i);
+            Map<String, String> errors = (item == null) ? Map.of("item", "project is required")
+                    : ProjectDataValidators.validate(item);
+            if (errors.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = failed(i, null, String.join("; ", errors.values()));
+            }
+        }
+        AtomicInteger done = new AtomicInteger(items.size() - valid.size());
+        if (done.get() > 0) progress.onUploaded(done.get(), items.size());
+
+        int size = Math.max(1, batchSize);
+        for (int from = 0; from < valid.size(); from += size) {
+            Chunk chunk = new Chunk(valid.subList(from, Math.min(from + size, valid.size())), results,
+                    () -> progress.onUploaded(done.incrementAndGet(), items.size()));
+            importChunk(chunk, items);
+        }
+
+        ProjectImportResultDTO dto = new ProjectImportResultDTO();
+        dto.setItems(Arrays.asList(results));
+        for (ProjectImportItemResultDTO r : results) {
+            if (r.getStatus() == ProjectImportStatus.IMPORTED) dto.setImported(dto.getImported() + 1);
+            else dto.setFailed(dto.getFailed() + 1);
+        }
+        importedItems.increment(dto.getImported());
+        failedItems.increment(dto.getFailed());
+        log.info("Imported {} of {} projects in {} ms", dto.getImported(), items.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        return dto;
+    }
+
+    private void importChunk(Chunk chunk, List<ProjectImportItemDTO> items) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(chunkTimeoutSeconds);
+        int helpers = Math.min(Math.max(1, parallelism), chunk.indexes.size()) - 1;
+        for (int lane = 0; lane < helpers; lane++) {
+            chunk.laneStarted();
+            try {
+                projectImportExecutor.execute(() -> runLane(chunk, items, deadline));
+            } catch (TaskRejectedException e) {
+                chunk.laneEnded();
+                log.warn("Import pool is full, chunk runs with {} lanes", lane + 1);
+                break;
+            }
+        }
+        chunk.laneStarted();
+        runLane(chunk, items, deadline);
+        if (!chunk.awaitLanes(deadline)) {
+            log.warn("Import chunk timed out; unfinished projects are reported failed");
+        }
+
+        Map<Integer, Staged> staged = chunk.staged;
+        if (staged.isEmpty()) return;
+        ProjectImportItemResultDTO[] results = chunk.results;
+        List<Integer> ready = new ArrayList<>(staged.keySet());
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(ready, items, staged, results));
+        } catch (RuntimeException e) {
+            Throwable cause = (e instanceof UncheckedIOException u) ? u.getCause() : e;
+            log.error("Writing {} imported projects failed: {}", ready.size(), cause.getMessage());
+            // References rolled back with the transaction; only remove what this chunk uploaded
+            for (Integer i : ready) {
+                staged.get(i).images().forEach(imageAssetService::discard);
+                results[i] = failed(i, staged.get(i).uniqueId(), cause.getMessage());
+            }
+        } finally {
+            staged.values().forEach(s -> s.images().forEach(PendingImage::close));
+        }
+    }
+
+    // Takes projects off the chunk's queue until it is empty or the chunk is closed
+    private void runLane(Chunk chunk, List<ProjectImportItemDTO> items, long deadline) {
+        try {
+            Integer i;
+            while ((i = chunk.next()) != null) {
+                if (System.nanoTime() > deadline) {
+                    chunk.fail(i, "Import timed out before this project started");
+                    continue;
+                }
+                try {
+                    Staged s = stage(items.get(i));
+                    if (!chunk.stage(i, s)) {
+                        // Finished after the chunk gave up on it
+                        s.images().forEach(imageAssetService::discard);
+                        s.images().forEach(PendingImage::close);
+                    }
+                } catch (Exception e) {
+                    log.warn("Import item {} failed: {}", i, e.getMessage());
+                    chunk.fail(i, e.getMessage());
+                }
+            }
+        } finally {
+            chunk.laneEnded();
+        }
+    }
+
+    /**
+     * One chunk's shared state. Once the wait for its lanes times out the chunk is closed:
+     * lanes stop taking projects, every project without an outcome is reported timed out,
+     * and outcomes that arrive later are dropped.
+     */
+    private static final class Chunk {
+        final List<Integer> indexes;
+        final ProjectImportItemResultDTO[] results;
+        final Map<Integer, Staged> staged = new TreeMap<>();
+        private final Queue<Integer> queue;
+        private final Runnable onDone;
+        private int activeLanes;
+        private boolean closed;
+
+        Chunk(List<Integer> indexes, ProjectImportItemResultDTO[] results, Runnable onDone) {
+            this.indexes = indexes;
+            this.results = results;
+            this.queue = new ArrayDeque<>(indexes);
+            this.onDone = onDone;
+        }
+
+        synchronized Integer next() {
+            return closed ? null : queue.poll();
+        }
+
+        void fail(int i, String error) {
+            synchronized (this) {
+                if (closed) return;
+                results[i] = failed(i, null, error);
+            }
+            onDone.run();
+        }
+
+        boolean stage(int i, Staged s) {
+            synchronized (this) {
+                if (closed) return false;
+                staged.put(i, s);
+            }
+            onDone.run();
+            return true;
+        }
+
+        synchronized void laneStarted() {
+            activeLanes++;
+        }
+
+        synchronized void laneEnded() {
+            activeLanes--;
+            notifyAll();
+        }
+
+        // False when the deadline passed first; the chunk is closed either way
+        synchronized boolean awaitLanes(long deadline) {
+            try {
+                long left;
+                while (activeLanes > 0 && (left = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean finished = activeLanes == 0;
+            closed = true;
+            for (Integer i : indexes) {
+                if (results[i] == null && !staged.containsKey(i)) {
+                    results[i] = failed(i, null, "Import timed out before this project finished");
+                }
+            }
+            return finished;
+        }
+    }
+
+    // Thumbnail first, then the gallery, matching create()
+    private Staged stage(ProjectImportItemDTO item) throws IOException {
+        String uuid = UUID.randomUUID().toString();
+        List<SpooledUpload> fetched = new ArrayList<>();
+        List<PendingImage> pending = null;
+        try {
+            fetched.add(remoteImageFetcher.fetch(item.getThumbnailUrl()));
+            for (String url : item.getImageUrls()) fetched.add(remoteImageFetcher.fetch(url));
+            pending = imageAssetService.prepare(new ArrayList<MultipartFile>(fetched), uuid);
+            for (PendingImage image : pending) imageAssetService.upload(image);
+            return new Staged(uuid, pending);
+        } catch (IOException | RuntimeException e) {
+            if (pending != null) {
+                pending.forEach(imageAssetService::discard);
+                pending.forEach(PendingImage::close);
+            } else {
+                fetched.forEach(SpooledUpload::close);
+            }
+            throw e;
+        }
+    }
+
+    private void persist(List<Integer> ready, List<ProjectImportItemDTO> items, Map<Integer, Staged> staged,
+                         ProjectImportItemResultDTO[] results) {
+        Map<String, List<String>> imageKeys = new HashMap<>();
+        Map<Integer, String> thumbnailKeys = new HashMap<>();
+        try {
+            for (Integer i : ready) {
+                Staged s = staged.get(i);
+                thumbnailKeys.put(i, imageAssetService.reference(s.images().get(0)));
+                List<String> keys = new ArrayList<>();
+                for (PendingImage image : s.images().subList(1, s.images().size())) {
+                    keys.add(imageAssetService.reference(image));
+                }
+                imageKeys.put(s.uniqueId(), keys);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Stamped like Project.onPrePersist, bound the way Hibernate binds Instant columns
+        Timestamp now = Timestamp.from(Instant.now());
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbcTemplate.batchUpdate(INSERT_PROJECT, ready, ready.size(), (ps, i) -> {
+            ProjectImportItemDTO item = items.get(i);
+            ps.setString(1, staged.get(i).uniqueId());
+            ps.setString(2, item.getTitle());
+            ps.setString(3, item.getDescription());
+            ps.setString(4, item.getServiceType());
+            ps.setString(5, thumbnailKeys.get(i));
+            ps.setTimestamp(6, now, utc);
+            ps.setTimestamp(7, now, utc);
+        });
+
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, unique_id FROM projects WHERE unique_id IN (:uniqueIds)",
+                Map.of("uniqueIds", imageKeys.keySet()),
+                rs -> {
+                    ids.put(rs.getString("unique_id"), rs.getLong("id"));
+                });
+
+        List<Object[]> imageRows = new ArrayList<>();
+        for (Map.Entry<String, List<String>> e : imageKeys.entrySet()) {
+            for (String key : e.getValue()) imageRows.add(new Object[]{key, ids.get(e.getKey())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_IMAGE, imageRows);
+
+        Map<String, Long> perServiceType = new TreeMap<>(); // fixed order, so concurrent imports lock rows alike
+        for (Integer i : ready) perServiceType.merge(items.get(i).getServiceType(), 1L, Long::sum);
+        perServiceType.forEach(serviceTypeCountRepository::incrementBy);
+
+        for (Integer i : ready) {
+            ProjectImportItemDTO item = items.get(i);
+            String uuid = staged.get(i).uniqueId();
+            Long id = ids.get(uuid);
+            eventPublisher.publishEvent(new ProjectCreatedEvent(id, uuid, item.getTitle(),
+                    item.getDescription(), item.getServiceType()));
+            results[i] = new ProjectImportItemResultDTO(i, ProjectImportStatus.IMPORTED, uuid, id, null);
+        }
+    }
+
+    private static ProjectImportItemResultDTO failed(int index, String uniqueId, String error) {
+        return new ProjectImportItemResultDTO(index, ProjectImportStatus.FAILED, uniqueId, null, error);
+    }
+}
@@ -0,0 +1,255 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectImportResultDTO;
+import com.refconstructionopc.dto.ProjectJobDTO;
+import com.refconstructionopc.enums.ProjectJobKind;
+import com.refconstructionopc.enums.ProjectJobStatus;
+import com.refconstructionopc.model.ProjectJob;
+import com.refconstructionopc.repository.ProjectJobRepository;
+import com.refconstructionopc.service.ProjectImportService;
+import com.refconstructionopc.service.ProjectJobService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.SpooledUpload;
+import com.refconstructionopc.upload.UploadByteBudget;
+import com.refconstructionopc.upload.UploadProgressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Runs project creates and imports in the background. For a create the request thread only
+ * spools the parts to local disk (a rename for Tomcat's disk-backed parts) and records a
+ * job; a projectJobExecutor worker does the uploads and the save. An import manifest is
+ * checked and kept in memory until its worker runs it.
+ *
+ * Job state lives in the project_jobs table, so any node can answer a status poll, but the
+ * spool files and the worker stay on the node that accepted the job. Work cannot move to
+ * another node: when that node restarts its unfinished jobs are marked FAILED on start-up,
+ * and jobs of a node that is gone for good are failed once that node has not touched them
+ * (each node refreshes its unfinished jobs, queued ones included, every cleanup run) for
+ * projects.jobs.stale-minutes. A job only starts if it is still QUEUED and only records its
+ * outcome if it is still unfinished, so a job reported failed never turns into another state.
+ * Finished jobs are deleted projects.jobs.ttl-minutes later.
+ */
+@Service
+public class ProjectJobServiceImpl implements ProjectJobService, SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(ProjectJobServiceImpl.class);
+
+    private final ProjectService projectService;
+    private final ProjectImportService projectImportService;
+    private final ProjectJobRepository projectJobRepository;
+    private final AsyncTaskExecutor projectJobExecutor;
+    private final ObjectMapper objectMapper;
+    private final String node;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/project-uploads}")
+    private String spoolDir;
+
+    @Value("${projects.jobs.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${projects.jobs.stale-minutes:30}")
+    private long staleMinutes;
+
+    public ProjectJobServiceImpl(ProjectService projectService, ProjectImportService projectImportService,
+                                 ProjectJobRepository projectJobRepository,
+                                 @Qualifier("projectJobExecutor") AsyncTaskExecutor projectJobExecutor,
+                                 ObjectMapper objectMapper, @Value("${projects.jobs.node-id:}") String nodeId) {
+        this.projectService = projectService;
+        this.projectImportService = projectImportService;
+        this.projectJobRepository = projectJobRepository;
+        this.projectJobExecutor = projectJobExecutor;
+        this.objectMapper = objectMapper;
+        this.node = nodeId.isBlank() ? localHostName() : nodeId;
+    }
+
+    // Before the web server starts, so no job of this run is affected
+    @Override
+    public void afterSingletonsInstantiated() {
+        int failed = projectJobRepository.failUnfinishedOnNode(node, "Interrupted by a restart, submit again",
+                Instant.now());
+        if (failed > 0) log.warn("Marked {} unfinished jobs of node {} failed", failed, node);
+    }
+
+    @Override
+    public ProjectJobDTO submitCreate(String title, String description, String serviceType,
+                                      MultipartFile thumbnail, List<MultipartFile> images, String submittedBy,
+                                      UploadByteBudget.Reservation reservation) throws IOException {
+        Path dir = Path.of(spoolDir);
+        List<SpooledUpload> spooled = new ArrayList<>();
+        try {
+            SpooledUpload thumb = SpooledUpload.of(thumbnail, dir);
+            spooled.add(thumb);
+            List<MultipartFile> gallery = new ArrayList<>();
+            if (images != null) {
+                for (MultipartFile f : images) {
+                    if (f == null || f.isEmpty()) continue;
+                    SpooledUpload s = SpooledUpload.of(f, dir);
+                    spooled.add(s);
+                    gallery.add(s);
+                }
+            }
+
+            ProjectJob job = queue(ProjectJobKind.CREATE, submittedBy, spooled.size(), reservation,
+                    progress -> projectService.create(title, description, serviceType, thumb, gallery, progress),
+                    () -> spooled.forEach(SpooledUpload::close));
+            log.info("Queued create job {} ({} files)", job.getId(), job.getTotalFiles());
+            return toDTO(job);
+        } catch (IOException | RuntimeException e) {
+            // Not handed to a worker: nobody else will delete the spool files
+            spooled.forEach(SpooledUpload::close);
+            throw e;
+        }
+    }
+
+    @Override
+    public ProjectJobDTO submitImport(List<ProjectImportItemDTO> items, String submittedBy,
+                                      UploadByteBudget.Reservation reservation) {
+        projectImportService.checkManifest(items);
+        List<ProjectImportItemDTO> manifest = List.copyOf(items);
+        ProjectJob job = queue(ProjectJobKind.IMPORT, submittedBy, manifest.size(), reservation,
+                progress -> projectImportService.importProjects(manifest, progress), () -> { });
+        log.info("Queued import job {} ({} projects)", job.getId(), job.getTotalFiles());
+        return toDTO(job);
+    }
+
+    // The work of a job; its result is stored as JSON
+    private interface JobWork {
+        Object run(UploadProgressListener progress) throws Exception;
+    }
+
+    // Records the job and hands it to a worker; cleanup runs once the job ends or is refused
+    private ProjectJob queue(ProjectJobKind kind, String submittedBy, int total,
+                             UploadByteBudget.Reservation reservation, JobWork work, Runnable cleanup) {
+        Instant now = Instant.now();
+        ProjectJob job = new ProjectJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setKind(kind);
+        job.setStatus(ProjectJobStatus.QUEUED);
+        job.setSubmittedBy(submittedBy);
+        job.setNode(node);
+        job.setTotalFiles(total);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        projectJobRepository.save(job);
+
+        // Retained before the hand-off: the worker may finish and release it first
+        if (reservation != null) reservation.retain();
+        try {
+            projectJobExecutor.execute(() -> run(job, work, cleanup, reservation));
+        } catch (TaskRejectedException e) {
+            projectJobRepository.deleteById(job.getId());
+            if (reservation != null) reservation.close();
+            throw e;
+        }
+        return job;
+    }
+
+    @Override
+    public Optional<ProjectJobDTO> findJob(String jobId, String requestedBy) {
+        return projectJobRepository.findById(jobId)
+                .filter(job -> job.getSubmittedBy().equals(requestedBy))
+                .map(this::toDTO);
+    }
+
+    @Scheduled(fixedDelayString = "${projects.jobs.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        Instant now = Instant.now();
+        projectJobRepository.touchUnfinishedOnNode(node, now);
+        int abandoned = projectJobRepository.failAbandoned(now.minus(Duration.ofMinutes(staleMinutes)),
+                "Abandoned: the node running it stopped, submit again", now);
+        if (abandoned > 0) log.warn("Marked {} abandoned jobs failed", abandoned);
+        projectJobRepository.deleteFinishedBefore(now.minus(Duration.ofMinutes(ttlMinutes)));
+    }
+
+    private void run(ProjectJob job, JobWork work, Runnable cleanup, UploadByteBudget.Reservation reservation) {
+        try {
+            if (projectJobRepository.markRunning(job.getId(), Instant.now()) == 0) {
+                log.warn("{} job {} was failed while queued, not running it", job.getKind(), job.getId());
+                return;
+            }
+
+            Object result = work.run(
+                    (done, total) -> projectJobRepository.updateProgress(job.getId(), done, Instant.now()));
+            job.setUploadedFiles(job.getTotalFiles());
+            job.setResult(objectMapper.writeValueAsString(result));
+            job.setStatus(ProjectJobStatus.SUCCEEDED);
+        } catch (Exception e) {
+            log.error("{} job {} failed: {}", job.getKind(), job.getId(), e.getMessage());
+            String error = (e.getMessage() != null) ? e.getMessage() : e.getClass().getSimpleName();
+            job.setError(error.length() > 500 ? error.substring(0, 500) : error);
+            job.setStatus(ProjectJobStatus.FAILED);
+        } finally {
+            cleanup.run();
+            if (reservation != null) reservation.close();
+        }
+        finish(job);
+    }
+
+    private void finish(ProjectJob job) {
+        try {
+            int updated = projectJobRepository.finish(job.getId(), job.getStatus(), job.getUploadedFiles(),
+                    job.getResult(), job.getError(), Instant.now());
+            if (updated == 0) {
+                log.warn("{} job {} ended {} after it had been marked failed; the failure stands",
+                        job.getKind(), job.getId(), job.getStatus());
+            }
+        } catch (RuntimeException e) {
+            // The project (if any) exists; the job is failed as abandoned once it goes stale
+            log.error("Could not record the outcome of job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private ProjectJobDTO toDTO(ProjectJob job) {
+        ProjectJobDTO dto = new ProjectJobDTO();
+        dto.setJobId(job.getId());
+        dto.setKind(job.getKind());
+        dto.setStatus(job.getStatus());
+        dto.setUploadedFiles(job.getUploadedFiles());
+        dto.setTotalFiles(job.getTotalFiles());
+        if (job.getKind() == ProjectJobKind.IMPORT) {
+            dto.setImportResult(readResult(job, ProjectImportResultDTO.class));
+        } else {
+            dto.setProject(readResult(job, ProjectDTO.class));
+        }
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    private <T> T readResult(ProjectJob job, Class<T> type) {
+        if (job.getResult() == null) return null;
+        try {
+            return objectMapper.readValue(job.getResult(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable result of job " + job.getId(), e);
+        }
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -1,28 +1,59 @@
 package com.refconstructionopc.service.serviceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.refconstructionopc.config.CacheConfig;
+import com.refconstructionopc.dto.CursorPageDTO;
 import com.refconstructionopc.dto.ProjectDTO;
 import com.refconstructionopc.dto.ProjectImageDTO;
+import com.refconstructionopc.dto.ProjectSummaryDTO;
+import com.refconstructionopc.dto.ServiceTypeFacetDTO;
+import com.refconstructionopc.enums.ProjectSearchMode;
+import com.refconstructionopc.event.ProjectCreatedEvent;
 import com.refconstructionopc.model.Project;
 import com.refconstructionopc.model.ProjectImage;
+import com.refconstructionopc.repository.ProjectImageRepository;
 import com.refconstructionopc.repository.ProjectRepository;
-import com.refconstructionopc.service.CloudinaryService;
+import com.refconstructionopc.repository.ServiceTypeCountRepository;
+import com.refconstructionopc.repository.projection.ProjectExportRowView;
+import com.refconstructionopc.repository.projection.ProjectSummaryView;
+import com.refconstructionopc.repository.projection.ServiceTypeCountView;
+import com.refconstructionopc.search.ProjectSearchIndex;
+import com.refconstructionopc.service.ImageAssetService;
+import com.refconstructionopc.service.ImageUrlService;
+import com.refconstructionopc.service.ProjectAlreadyExistsException;
 import com.refconstructionopc.service.ProjectService;
-import jakarta.transaction.Transactional;
+import com.refconstructionopc.upload.PendingImage;
+import com.refconstructionopc.upload.UploadProgressListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.*;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -30,90 +61,139 @@ import org.springframework.data.domain.Pageable;
 @Service
 public class ProjectServiceImpl implements ProjectService {
     private static final Logger log = LoggerFactory.getLogger(ProjectServiceImpl.class);
+    private static final Pattern UNIQUE_ID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final int MAX_FULLTEXT_TERMS = 8;
 
     private final ProjectRepository projectRepository;
+    private final ProjectImageRepository projectImageRepository;
+    private final ServiceTypeCountRepository serviceTypeCountRepository;
 
-    private final CloudinaryService cloudinaryService;
+    private final ImageAssetService imageAssetService;
+    private final ImageUrlService imageUrlService;
     private final AsyncTaskExecutor imageUploadExecutor;
+    private final ProjectSearchIndex projectSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Counter reusedImages;
 
     @Value("${uploads.parallel-timeout-seconds:120}")
     private long parallelTimeoutSeconds;
 
-    public ProjectServiceImpl(ProjectRepository projectRepository, CloudinaryService cloudinaryService, @Qualifier("imageUploadExecutor") AsyncTaskExecutor imageUploadExecutor) {
+    // Gallery uploads one create may run at once
+    @Value("${uploads.per-project-max-concurrency:4}")
+    private int perProjectConcurrency;
+
+    // How long a failed create waits for its gallery uploads in flight before cleaning up
+    @Value("${uploads.failure-drain-seconds:30}")
+    private long failureDrainSeconds;
+
+    @Value("${projects.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${projects.search.mode:LIKE}")
+    private ProjectSearchMode searchMode;
+
+    public ProjectServiceImpl(ProjectRepository projectRepository, ProjectImageRepository projectImageRepository,
+                              ServiceTypeCountRepository serviceTypeCountRepository,
+                              ImageAssetService imageAssetService, ImageUrlService imageUrlService,
+                              @Qualifier("imageUploadExecutor") AsyncTaskExecutor imageUploadExecutor,
+                              ProjectSearchIndex projectSearchIndex, ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
         this.projectRepository = projectRepository;
-        this.cloudinaryService = cloudinaryService;
+        this.projectImageRepository = projectImageRepository;
+        this.serviceTypeCountRepository = serviceTypeCountRepository;
+        this.imageAssetService = imageAssetService;
+        this.imageUrlService = imageUrlService;
         this.imageUploadExecutor = imageUploadExecutor;
+        this.projectSearchIndex = projectSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.reusedImages = Counter.builder("images.upload.reused")
+                .description("Images whose content was already stored, so no upload ran")
+                .register(meterRegistry);
     }
 
-    @Transactional
     @Override
     public ProjectDTO create(String title, String description, String serviceType,
                              MultipartFile thumbnail, List<MultipartFile> images) throws IOException {
+        return create(title, description, serviceType, thumbnail, images, UploadProgressListener.NONE);
+    }
 
-        final long t0 = System.currentTimeMillis();
+    // Not @Transactional: uploads run with no transaction or connection held, then one short
+    // transaction takes the asset references and writes the rows
+    @Override
+    public ProjectDTO create(String title, String description, String serviceType,
+                             MultipartFile thumbnail, List<MultipartFile> images,
+                             UploadProgressListener progress) throws IOException {
+
+        final Timer.Sample createSample = Timer.start(meterRegistry);
         final String uuid = UUID.randomUUID().toString();
 
-        // Track uploaded keys for fail-fast cleanup
-        final Queue<String> uploadedKeys = new ConcurrentLinkedQueue<>();
+        // Spool + hash everything up front; content that is already stored is not uploaded again
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(thumbnail);
+        if (images != null) {
+            for (MultipartFile f : images) {
+                if (f != null && !f.isEmpty()) files.add(f);
+            }
+        }
+        final List<PendingImage> pending = imageAssetService.prepare(files, uuid);
+        final PendingImage thumb = pending.get(0);
+        final List<PendingImage> gallery = pending.subList(1, pending.size());
 
-        // Instrumentation counters
-        final AtomicInteger inflight = new AtomicInteger(0);
-        final AtomicInteger maxInflight = new AtomicInteger(0);
-        final AtomicInteger seq = new AtomicInteger(0);
+        final AtomicInteger uploaded = new AtomicInteger(0);
+        final int totalFiles = pending.size();
+        final Queue<PendingImage> toUpload = new ConcurrentLinkedQueue<>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // Set once the create failed: lanes start nothing new and discard what they still upload
+        final AtomicBoolean failed = new AtomicBoolean();
 
         try {
-            // 1) Schedule gallery uploads in parallel (overlaps with thumbnail)
-            List<CompletableFuture<String>> futures = new ArrayList<>();
-            if (images != null && !images.isEmpty()) {
-                for (MultipartFile imageFile : images) {
-                    if (imageFile == null || imageFile.isEmpty()) continue;
-
-                    final int id = seq.incrementAndGet();
-                    final long sizeKb = imageFile.getSize() / 1024;
-
-                    futures.add(CompletableFuture.supplyAsync(() -> {
-                        long start = System.currentTimeMillis();
-                        int now = inflight.incrementAndGet();
-                        maxInflight.updateAndGet(m -> Math.max(m, now));
-                        log.info("UPLOAD-START #{} size={}KB inflight={}", id, sizeKb, now);
+            for (PendingImage p : pending) {
+                if (p.needsUpload()) continue;
+                reusedImages.increment();
+                progress.onUploaded(uploaded.incrementAndGet(), totalFiles);
+            }
+
+            // 1) Schedule gallery uploads in parallel (overlaps with thumbnail). At most
+            //    perProjectConcurrency lanes drain this project's queue, so one large project
+            //    cannot take every worker and limiter slot from concurrent creates.
+            for (PendingImage image : gallery) {
+                if (image.needsUpload()) toUpload.add(image);
+            }
+            int lanes = Math.min(Math.max(1, perProjectConcurrency), toUpload.size());
+            for (int lane = 0; lane < lanes; lane++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    PendingImage image;
+                    while (!failed.get() && (image = toUpload.poll()) != null) {
                         try {
-                            String key = cloudinaryService.smartUpload(imageFile, uuid);
-                            uploadedKeys.add(key);
-                            return key;
+                            imageAssetService.upload(image);
+                            if (failed.get()) {
+                                // Finished after the create gave up, possibly after its cleanup ran
+                                imageAssetService.discard(image);
+                                return;
+                            }
+                            progress.onUploaded(uploaded.incrementAndGet(), totalFiles);
                         } catch (IOException e) {
                             throw new CompletionException(e);
-                        } finally {
-                            long took = System.currentTimeMillis() - start;
-                            int after = inflight.decrementAndGet();
-                            log.info("UPLOAD-END   #{} took={}ms inflight={}", id, took, after);
                         }
-                    }, imageUploadExecutor));
-                }
+                    }
+                }, imageUploadExecutor));
             }
 
-            // Snapshot the executor state right after scheduling
-            if (imageUploadExecutor instanceof ThreadPoolTaskExecutor tp) {
-                log.info("EXEC state: poolSize={}, active={}, queueSize={}",
-                        tp.getPoolSize(), tp.getActiveCount(), tp.getThreadPoolExecutor().getQueue().size());
+            // 2) Upload thumbnail on request thread (overlaps with gallery)
+            if (thumb.needsUpload()) {
+                imageAssetService.upload(thumb);
+                progress.onUploaded(uploaded.incrementAndGet(), totalFiles);
             }
 
-            // 2) Upload thumbnail on request thread (overlaps with gallery)
-            long tThumb = System.currentTimeMillis();
-            String thumbKey = cloudinaryService.smartUpload(thumbnail, uuid);
-            uploadedKeys.add(thumbKey);
-            log.info("Thumbnail {} KB -> {} ms (key={})",
-                    thumbnail.getSize() / 1024, System.currentTimeMillis() - tThumb, thumbKey);
-
-            // 3) Build entity (persist once at the end)
-            Project data = new Project();
-            data.setUniqueId(uuid);
-            data.setTitle(title);
-            data.setDescription(description);
-            data.setServiceType(serviceType);
-            data.setThumbnailImage(thumbKey);
-            data.setImages(new ArrayList<>());
-
-            // 4) Await all gallery uploads with timeout; cleanup on error
+            // 3) Await all gallery uploads with timeout
             if (!futures.isEmpty()) {
                 CompletableFuture<Void> all = CompletableFuture.allOf(
                         futures.toArray(new CompletableFuture[0])
@@ -121,74 +201,429 @@ public class ProjectServiceImpl implements ProjectService {
                 try {
                     all.orTimeout(parallelTimeoutSeconds, TimeUnit.SECONDS).join();
                 } catch (Throwable t) {
-                    futures.forEach(f -> f.cancel(true));
-                    // best-effort cleanup (thumbnail + any completed gallery keys)
-                    for (String k : uploadedKeys) {
-                        try { cloudinaryService.deleteByKey(k); } catch (Exception ignore) {}
-                    }
                     throw new RuntimeException("One or more uploads failed or timed out after "
                             + parallelTimeoutSeconds + "s", t);
                 }
             }
 
-            // 5) Attach images and save (cascade persists children)
-            for (CompletableFuture<String> f : futures) {
-                String key = f.join(); // safe after allOf completed
-                ProjectImage img = new ProjectImage();
-                img.setProject(data);
-                img.setImageUrl(key);
-                data.getImages().add(img);
+            // 4) Short transaction: take the asset references and persist (cascade persists children)
+            Project saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    try {
+                        String thumbnailKey = imageAssetService.reference(thumb);
+                        List<String> imageKeys = new ArrayList<>();
+                        for (PendingImage image : gallery) imageKeys.add(imageAssetService.reference(image));
+                        return persist(uuid, title, description, serviceType, thumbnailKey, imageKeys);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
             }
 
-            // Summary instrumentation
-            log.info("UPLOAD-SUMMARY maxInflight={}", maxInflight.get());
-
-            data = projectRepository.save(data);
-
-            long ms = System.currentTimeMillis() - t0;
+            long nanos = createSample.stop(createTimer("success"));
             log.info("Created project {} ({} images) in {} ms",
-                    data.getId(), (images == null ? 0 : images.size()), ms);
+                    saved.getId(), gallery.size(), TimeUnit.NANOSECONDS.toMillis(nanos));
 
-            return convertProjectEntityToDTO(data);
+            return convertProjectEntityToDTO(saved);
 
         } catch (Exception e) {
+            createSample.stop(createTimer("failure"));
             log.error("Create project failed: {}", e.getMessage());
-            // Best-effort cleanup of anything that made it to Cloudinary
-            for (String k : uploadedKeys) {
-                try { cloudinaryService.deleteByKey(k); } catch (Exception ignore) {}
-            }
+            // Stop the lanes and let uploads in flight end before their spool files go
+            failed.set(true);
+            toUpload.clear();
+            awaitLanes(futures);
+            // Queue deletes for what this create uploaded (cleanup outbox); references rolled back with the transaction
+            pending.forEach(imageAssetService::discard);
             throw e;
+        } finally {
+            pending.forEach(PendingImage::close);
         }
     }
 
+    // Bounded; a lane still running afterwards discards its own upload when it ends
+    private void awaitLanes(List<CompletableFuture<Void>> lanes) {
+        if (lanes.isEmpty()) return;
+        try {
+            CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]))
+                    .get(failureDrainSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The upload failure is already being reported
+        } catch (TimeoutException e) {
+            log.warn("Gallery uploads still running {}s after the create failed", failureDrainSeconds);
+        }
+    }
+
+    private Timer createTimer(String outcome) {
+        return Timer.builder("projects.create")
+                .description("End-to-end project create, uploads included")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Images already stored by the client (direct uploads); only the rows are written here
     @Override
     @Transactional
+    public ProjectDTO createFromStoredImages(String uniqueId, String title, String description, String serviceType,
+                                             String thumbnailKey, List<String> imageKeys) {
+        if (projectRepository.existsByUniqueId(uniqueId)) {
+            throw new ProjectAlreadyExistsException(uniqueId);
+        }
+        Project saved = persist(uniqueId, title, description, serviceType, thumbnailKey, imageKeys);
+        log.info("Created project {} ({} images) from stored images", saved.getId(), imageKeys.size());
+        return convertProjectEntityToDTO(saved);
+    }
+
+    private Project persist(String uuid, String title, String description, String serviceType,
+                            String thumbnailKey, List<String> imageKeys) {
+        Project data = new Project();
+        data.setUniqueId(uuid);
+        data.setTitle(title);
+        data.setDescription(description);
+        data.setServiceType(serviceType);
+        data.setThumbnailImage(thumbnailKey);
+        data.setImages(new ArrayList<>());
+        for (String key : imageKeys) {
+            ProjectImage img = new ProjectImage();
+            img.setProject(data);
+            img.setImageUrl(key);
+            data.getImages().add(img);
+        }
+
+        data = projectRepository.save(data);
+        // Facet aggregate moves in the same transaction as the insert
+        serviceTypeCountRepository.increment(data.getServiceType());
+        // Derived state (search index, ...) picks this up after commit
+        eventPublisher.publishEvent(new ProjectCreatedEvent(data.getId(), data.getUniqueId(),
+                data.getTitle(), data.getDescription(), data.getServiceType()));
+        return data;
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PROJECT_PAGES,
+            key = "T(java.util.Objects).toString(#search, '').trim() + '|' + T(java.lang.Math).max(#page, 0)"
+                    + " + '|' + #root.target.pageSize(#size)")
+    @Transactional(readOnly = true)
     public Page<ProjectDTO> findAllProject(String search,int page, int size) {
         int p = Math.max(page, 0);
-        int s = (size < 1) ? 10 : size; // any default ≥1; no upper cap
-        Pageable pageable = PageRequest.of(p, s); // no Sort here
+        int s = pageSize(size);
+        Pageable pageable = PageRequest.of(p, s); // ordering lives in the query
+
+        String q = (search == null || search.isBlank()) ? null : search.trim();
+
+        if (isUniqueId(q)) {
+            List<ProjectDTO> hit = findByUniqueIdAsList(q);
+            return new PageImpl<>(p == 0 ? hit : List.of(), pageable, hit.size());
+        }
+
+        int[] indexed = indexSearch(q);
+        if (indexed != null) {
+            int from = (int) Math.min(pageable.getOffset(), indexed.length);
+            int to = Math.min(from + s, indexed.length);
+            List<ProjectDTO> results = convertWithImages(loadInIdOrder(Arrays.copyOfRange(indexed, from, to)));
+            return new PageImpl<>(results, pageable, indexed.length);
+        }
+
+        // LIMIT/OFFSET page + separate COUNT query, both executed by the DB
+        String terms = fullTextTerms(q);
+        Page<Project> rows = (terms != null)
+                ? projectRepository.searchFullText(terms, pageable)
+                : projectRepository.getAllProjectWithSearch(q, pageable);
+        return new PageImpl<>(convertWithImages(rows.getContent()), pageable, rows.getTotalElements());
+    }
+
+    // Public for the cache key: out-of-range sizes share the entry of the size actually served
+    public int pageSize(int size) {
+        return (size < 1) ? 10 : Math.min(size, maxPageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProjectDTO> findAllProjectByCursor(String search, String cursor, int size) {
+        int s = pageSize(size);
+        String q = (search == null || search.isBlank()) ? null : search.trim();
+
+        if (isUniqueId(q)) {
+            List<ProjectDTO> hit = (cursor == null || cursor.isBlank()) ? findByUniqueIdAsList(q) : List.of();
+            return new CursorPageDTO<>(hit, s, false, null);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        Limit limit = Limit.of(s + 1);
+        int[] indexed = indexSearch(q);
+        String terms = fullTextTerms(q);
+        List<Project> rows;
+        if (indexed != null) {
+            // ids are IDENTITY-ordered, so "older than the cursor" is "smaller id"
+            int from = 0;
+            if (cursor != null && !cursor.isBlank()) {
+                long afterId = decodeCursor(cursor).id();
+                while (from < indexed.length && indexed[from] >= afterId) from++;
+            }
+            rows = loadInIdOrder(Arrays.copyOfRange(indexed, from, Math.min(from + s + 1, indexed.length)));
+        } else if (cursor == null || cursor.isBlank()) {
+            rows = (terms != null)
+                    ? projectRepository.findFirstFullTextKeysetPage(terms, limit)
+                    : projectRepository.findFirstKeysetPage(q, limit);
+        } else {
+            CursorKey key = decodeCursor(cursor);
+            rows = (terms != null)
+                    ? projectRepository.findFullTextKeysetPageAfter(terms, key.createdAt(), key.id(), limit)
+                    : projectRepository.findKeysetPageAfter(q, key.createdAt(), key.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > s;
+        List<Project> pageRows = hasNext ? rows.subList(0, s) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Project last = pageRows.get(pageRows.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return new CursorPageDTO<>(convertWithImages(pageRows), s, hasNext, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProjectSummaryDTO> findAllProjectSummaries(String search, int page, int size) {
+        int p = Math.max(page, 0);
+        int s = pageSize(size);
+        Pageable pageable = PageRequest.of(p, s);
 
         String q = (search == null || search.isBlank()) ? null : search.trim();
 
-        // DB returns all matches already ordered by createdAt DESC
-        List<Project> all = projectRepository.getAllProjectWithSearch(q);
-        int total = all.size();
+        if (isUniqueId(q)) {
+            List<ProjectSummaryDTO> hit = projectRepository.findSummariesByUniqueId(q.toLowerCase(Locale.ROOT))
+                    .stream().map(this::convertSummaryViewToDTO).toList();
+            return new PageImpl<>(p == 0 ? hit : List.of(), pageable, hit.size());
+        }
+
+        int[] indexed = indexSearch(q);
+        if (indexed != null) {
+            int from = (int) Math.min(pageable.getOffset(), indexed.length);
+            int to = Math.min(from + s, indexed.length);
+            List<Long> ids = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) ids.add((long) indexed[i]);
+            Map<Long, ProjectSummaryView> byId = new HashMap<>();
+            if (!ids.isEmpty()) {
+                for (ProjectSummaryView v : projectRepository.findSummariesByIdIn(ids)) byId.put(v.getId(), v);
+            }
+            List<ProjectSummaryDTO> results = ids.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(this::convertSummaryViewToDTO)
+                    .toList();
+            return new PageImpl<>(results, pageable, indexed.length);
+        }
+
+        String terms = fullTextTerms(q);
+        Page<ProjectSummaryView> rows = (terms != null)
+                ? projectRepository.searchSummariesFullText(terms, pageable)
+                : projectRepository.findSummariesWithSearch(q, pageable);
+        return rows.map(this::convertSummaryViewToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServiceTypeFacetDTO> getServiceTypeFacets(String search) {
+        String q = (search == null || search.isBlank()) ? null : search.trim();
+
+        if (q == null) {
+            // Precomputed aggregate: one small table scan, independent of catalogue size
+            return serviceTypeCountRepository.findAllByOrderByProjectCountDescServiceTypeAsc().stream()
+                    .filter(c -> c.getProjectCount() > 0)
+                    .map(c -> new ServiceTypeFacetDTO(c.getServiceType(), c.getProjectCount()))
+                    .toList();
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        int[] indexed = isUniqueId(q) ? null : indexSearch(q);
+        if (isUniqueId(q)) {
+            for (ProjectSummaryView v : projectRepository.findSummariesByUniqueId(q.toLowerCase(Locale.ROOT))) {
+                counts.merge(v.getServiceType(), 1L, Long::sum);
+            }
+        } else if (indexed != null) {
+            counts = projectSearchIndex.countServiceTypes(indexed);
+        } else {
+            String terms = fullTextTerms(q);
+            List<ServiceTypeCountView> rows = (terms != null)
+                    ? projectRepository.countServiceTypesFullText(terms)
+                    : projectRepository.countServiceTypesWithSearch(q);
+            for (ServiceTypeCountView row : rows) counts.put(row.getServiceType(), row.getProjectCount());
+        }
+
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new ServiceTypeFacetDTO(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Writes one JSON object per project per line. Rows are streamed from MySQL and
+     * grouped per project as they arrive, so memory stays flat whatever the table size.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ProjectDTO.class);
+        long exported = 0;
+        try (Stream<ProjectExportRowView> rows = projectRepository.streamExportRows()) {
+            Iterator<ProjectExportRowView> it = rows.iterator();
+            ProjectDTO current = null;
+            while (it.hasNext()) {
+                ProjectExportRowView row = it.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        writeNdjsonLine(writer, current, out);
+                        exported++;
+                    }
+                    current = convertExportRowToDTO(row);
+                }
+                if (row.getImageId() != null) {
+                    ProjectImageDTO img = new ProjectImageDTO();
+                    img.setId(row.getImageId());
+                    img.setImageUrl(row.getImageUrl());
+                    current.getImages().add(img);
+                }
+            }
+            if (current != null) {
+                writeNdjsonLine(writer, current, out);
+                exported++;
+            }
+        }
+        out.flush();
+        log.info("Exported {} projects as NDJSON", exported);
+    }
+
+    private static void writeNdjsonLine(ObjectWriter writer, ProjectDTO dto, OutputStream out) throws IOException {
+        out.write(writer.writeValueAsBytes(dto));
+        out.write('\n');
+    }
+
+    // Exact uniqueId lookups hit the unique index instead of any text search
+    private static boolean isUniqueId(String q) {
+        return q != null && UNIQUE_ID_PATTERN.matcher(q).matches();
+    }
+
+    private List<ProjectDTO> findByUniqueIdAsList(String uniqueId) {
+        return convertWithImages(projectRepository.findByUniqueId(uniqueId.toLowerCase(Locale.ROOT))
+                .stream()
+                .toList());
+    }
 
-        int start = (int) pageable.getOffset();
-        if (start >= total) {
-            return new PageImpl<>(List.of(), pageable, total);
+    /** Matching ids (newest first) from the in-memory index, or null to query the DB instead. */
+    private int[] indexSearch(String q) {
+        if (q == null || searchMode != ProjectSearchMode.INDEX || !projectSearchIndex.isReady()) return null;
+        return projectSearchIndex.search(q);
+    }
+
+    // Fetches just the requested ids (single IN query) and restores the index order
+    private List<Project> loadInIdOrder(int[] ids) {
+        if (ids.length == 0) return List.of();
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (int id : ids) idList.add((long) id);
+        Map<Long, Project> byId = new HashMap<>();
+        for (Project p : projectRepository.findAllById(idList)) byId.put(p.getId(), p);
+        List<Project> ordered = new ArrayList<>(ids.length);
+        for (Long id : idList) {
+            Project p = byId.get(id);
+            if (p != null) ordered.add(p);
         }
-        int end = Math.min(start + pageable.getPageSize(), total);
+        return ordered;
+    }
 
-        // map only the slice
-        List<ProjectDTO> results = all.subList(start, end).stream()
-                .map(this::convertProjectEntityToDTO)
+    /**
+     * Builds a BOOLEAN MODE query ("kitchen* reno*") when FULLTEXT search is enabled.
+     * Returns null to fall back to the LIKE query (mode off, or nothing indexable in the term).
+     */
+    private String fullTextTerms(String q) {
+        if (q == null || searchMode != ProjectSearchMode.FULLTEXT) return null;
+        StringJoiner terms = new StringJoiner(" ");
+        int count = 0;
+        for (String token : q.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            terms.add(token + "*");
+            if (++count == MAX_FULLTEXT_TERMS) break;
+        }
+        return count == 0 ? null : terms.toString();
+    }
+
+    // Cursor = base64url("<epochSecond>.<nanos>:<id>"); opaque to clients
+    private record CursorKey(Instant createdAt, Long id) {}
+
+    private static String encodeCursor(Instant createdAt, Long id) {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorKey decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            int dot = raw.indexOf('.');
+            if (dot < 0 || colon < dot) throw new IllegalArgumentException("Invalid cursor");
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, colon)));
+            return new CursorKey(createdAt, Long.valueOf(raw.substring(colon + 1)));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Listing conversion: images for all projects on the page come from one
+     * batched IN query instead of N lazy {@code getImages()} loads.
+     */
+    private List<ProjectDTO> convertWithImages(List<Project> projects) {
+        if (projects.isEmpty()) return List.of();
+        List<Long> ids = projects.stream().map(Project::getId).toList();
+        Map<Long, List<ProjectImage>> imagesByProject = new HashMap<>();
+        for (ProjectImage pi : projectImageRepository.findByProjectIdIn(ids)) {
+            imagesByProject.computeIfAbsent(pi.getProject().getId(), k -> new ArrayList<>()).add(pi);
+        }
+        return projects.stream()
+                .map(p -> convertProjectEntityToDTO(p, imagesByProject.getOrDefault(p.getId(), List.of())))
                 .toList();
+    }
 
-        return new PageImpl<>(results, pageable, total);
+    private ProjectDTO convertExportRowToDTO(ProjectExportRowView row) {
+        ProjectDTO dto = new ProjectDTO();
+        dto.setId(row.getId());
+        dto.setUniqueId(row.getUniqueId());
+        dto.setTitle(row.getTitle());
+        dto.setDescription(row.getDescription());
+        dto.setServiceType(row.getServiceType());
+        dto.setThumbnailImage(row.getThumbnailImage());
+        dto.setImages(new ArrayList<>());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        return dto;
+    }
+
+    private ProjectSummaryDTO convertSummaryViewToDTO(ProjectSummaryView view) {
+        ProjectSummaryDTO dto = new ProjectSummaryDTO();
+        dto.setId(view.getId());
+        dto.setUniqueId(view.getUniqueId());
+        dto.setTitle(view.getTitle());
+        dto.setServiceType(view.getServiceType());
+        dto.setThumbnailImage(view.getThumbnailImage());
+        dto.setThumbnailUrls(imageUrlService.urls(view.getThumbnailImage()));
+        return dto;
     }
 
     private ProjectDTO convertProjectEntityToDTO(Project data) {
+        return convertProjectEntityToDTO(data, data.getImages());
+    }
+
+    private ProjectDTO convertProjectEntityToDTO(Project data, List<ProjectImage> images) {
         ProjectDTO dto = new ProjectDTO();
         dto.setId(data.getId());
         dto.setUniqueId(data.getUniqueId());
@@ -196,13 +631,15 @@ public class ProjectServiceImpl implements ProjectService {
         dto.setDescription(data.getDescription());
         dto.setServiceType(data.getServiceType());
         dto.setThumbnailImage(data.getThumbnailImage());
+        dto.setThumbnailUrls(imageUrlService.urls(data.getThumbnailImage()));
 
         List<ProjectImageDTO> imageDTOs = new ArrayList<>();
-        if (data.getImages() != null) {
-            for (ProjectImage pi : data.getImages()) {
+        if (images != null) {
+            for (ProjectImage pi : images) {
                 ProjectImageDTO img = new ProjectImageDTO();
                 img.setId(pi.getId());
-                img.setImageUrl(pi.getImageUrl()); // Cloudinary public_id
+                img.setImageUrl(pi.getImageUrl()); // storage public_id
+                img.setUrls(imageUrlService.urls(pi.getImageUrl()));
                 imageDTOs.add(img);
             }
         }
@@ -0,0 +1,191 @@
+package com.refconstructionopc.upload;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit for calls to a remote service.
+ *
+ * Every successful, fast call while the limit is at least half used raises the limit by
+ * one; a call that is throttled (420/429), fails server-side (5xx), fails on the network,
+ * or is slow multiplies it by {@code backoffRatio}. Callers past the limit wait up to
+ * {@code acquireTimeout} for a slot. Client errors (bad file, ...) say nothing about capacity
+ * and leave the limit alone.
+ *
+ * A call is slow when it takes longer than {@code slowCall} plus the time its payload needs
+ * at {@code minBytesPerSecond}, so a large upload is not mistaken for an overloaded service
+ * just because it has more to send.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T run() throws IOException;
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+    private final long minBytesPerSecond;
+    private final long acquireTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long drops;
+
+    // Without a throughput floor: slowCall alone decides, whatever the payload
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                      Duration slowCall, Duration acquireTimeout) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, slowCall, 0, acquireTimeout);
+    }
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                      Duration slowCall, long minBytesPerSecond, Duration acquireTimeout) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Expected 1 <= minLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.slowCallNanos = slowCall.toNanos();
+        this.minBytesPerSecond = minBytesPerSecond;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public <T> T execute(Call<T> call) throws IOException {
+        return execute(0, call);
+    }
+
+    /** {@code bytes} is the payload the call sends, which extends its slow-call threshold. */
+    public <T> T execute(long bytes, Call<T> call) throws IOException {
+        acquire();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return call.run();
+        } catch (IOException e) {
+            outcome = Outcome.DROP;
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = isOverload(e) ? Outcome.DROP : Outcome.IGNORE;
+            throw e;
+        } finally {
+            release(outcome, System.nanoTime() - start > slowCallNanos(bytes));
+        }
+    }
+
+    long slowCallNanos(long bytes) {
+        if (minBytesPerSecond <= 0 || bytes <= 0) return slowCallNanos;
+        return slowCallNanos + (long) (bytes * 1e9 / minBytesPerSecond);
+    }
+
+    private void acquire() throws IOException {
+        lock.lock();
+        try {
+            long remaining = acquireTimeoutNanos;
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw new SlotTimeoutException("Timed out waiting for an upload slot (limit " + (int) limit + ")");
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an upload slot");
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Outcome outcome, boolean slow) {
+        lock.lock();
+        try {
+            int used = inFlight;
+            inFlight--;
+            if (outcome == Outcome.DROP || (outcome == Outcome.SUCCESS && slow)) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                drops++;
+            } else if (outcome == Outcome.SUCCESS && used * 2 >= limit) {
+                // Only grow when the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The SDK reports HTTP errors as RuntimeExceptions carrying Cloudinary's message
+    static boolean isOverload(RuntimeException e) {
+        String msg = e.getMessage();
+        if (msg == null) return false;
+        msg = msg.toLowerCase(Locale.ROOT);
+        return msg.contains("rate limit")
+                || msg.contains("status code - 420")
+                || msg.contains("status code - 429")
+                || msg.matches("(?s).*status code - 5\\d\\d.*");
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDrops() {
+        lock.lock();
+        try {
+            return drops;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private enum Outcome { SUCCESS, DROP, IGNORE }
+
+    /** No slot freed up within the acquire timeout; the service is already saturated. */
+    public static class SlotTimeoutException extends IOException {
+        public SlotTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.refconstructionopc.upload;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One virtual thread per task, at most {@code maxConcurrency} running at a time.
+ *
+ * The permit is taken inside the new thread, so submitting never blocks the caller;
+ * surplus tasks park cheaply on the semaphore instead of waiting in a bounded queue.
+ * Requires Java 21.
+ */
+public class BoundedVirtualThreadExecutor implements AsyncTaskExecutor, AutoCloseable {
+    private final SimpleAsyncTaskExecutor delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be >= 1");
+        this.delegate = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        this.delegate.setVirtualThreads(true);
+        this.delegate.setTaskTerminationTimeout(30_000);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        delegate.execute(() -> {
+            waiting.incrementAndGet();
+            // Uninterruptible: a task that never runs would leave its future incomplete
+            permits.acquireUninterruptibly();
+            waiting.decrementAndGet();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,249 @@
+package com.refconstructionopc.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Optional pre-upload stage (uploads.normalize.enabled): decodes the image, applies the
+ * EXIF orientation, downsizes it to uploads.normalize.max-dimension and re-encodes it
+ * without metadata (JPEG at uploads.normalize.jpeg-quality, PNG when it has alpha).
+ *
+ * Work runs on the bounded imageProcessingExecutor so CPU-heavy decodes never exceed
+ * its thread count, whatever the upload concurrency. Anything that cannot be decoded
+ * (HEIC, CMYK JPEG, ...) is uploaded unchanged.
+ */
+@Component
+public class ImageNormalizer {
+    private static final Logger log = LoggerFactory.getLogger(ImageNormalizer.class);
+    // Refuse to decode absurd dimensions (decompression bombs)
+    private static final long MAX_SOURCE_PIXELS = 250_000_000L;
+
+    private final AsyncTaskExecutor imageProcessingExecutor;
+
+    @Value("${uploads.normalize.enabled:false}")
+    private boolean enabled;
+
+    @Value("${uploads.normalize.max-dimension:2560}")
+    private int maxDimension;
+
+    @Value("${uploads.normalize.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/project-uploads}")
+    private String spoolDir;
+
+    public ImageNormalizer(@Qualifier("imageProcessingExecutor") AsyncTaskExecutor imageProcessingExecutor) {
+        this.imageProcessingExecutor = imageProcessingExecutor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Normalized copy of {@code source} in the spool directory (the caller deletes it),
+     * or null when the original should be uploaded as is.
+     */
+    public Path normalize(Path source) {
+        if (!enabled) return null;
+        try {
+            return imageProcessingExecutor.submit(() -> normalizeNow(source)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TaskRejectedException e) {
+            Throwable cause = (e instanceof ExecutionException) ? e.getCause() : e;
+            log.warn("Image normalization skipped for {}: {}", source.getFileName(), cause.toString());
+            return null;
+        }
+    }
+
+    Path normalizeNow(Path source) throws IOException {
+        long t0 = System.currentTimeMillis();
+        BufferedImage image;
+        String format;
+        int srcWidth;
+        int srcHeight;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = (in == null) ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                srcWidth = reader.getWidth(0);
+                srcHeight = reader.getHeight(0);
+                if ((long) srcWidth * srcHeight > MAX_SOURCE_PIXELS) return null;
+
+                // Subsample while decoding so the raster stays near 2x the target size
+                ImageReadParam param = reader.getDefaultReadParam();
+                int sub = Math.max(1, Math.max(srcWidth, srcHeight) / (2 * maxDimension));
+                if (sub > 1) param.setSourceSubsampling(sub, sub, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean jpeg = format.equals("jpeg") || format.equals("jpg");
+        boolean alpha = image.getColorModel().hasAlpha();
+        image = scaleToFit(image, maxDimension, alpha);
+        if (jpeg) image = orient(image, exifOrientation(source));
+
+        Path target = Path.of(spoolDir).resolve("normalized-" + UUID.randomUUID() + (alpha ? ".png" : ".jpg"));
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", target.toFile());
+            } else {
+                writeJpeg(image, target);
+            }
+            long before = Files.size(source);
+            long after = Files.size(target);
+            // JPEGs are always replaced so EXIF (GPS, device) never leaves the server
+            if (!jpeg && after >= before) {
+                Files.deleteIfExists(target);
+                return null;
+            }
+            log.info("Normalized {}x{} {} KB -> {}x{} {} KB in {} ms", srcWidth, srcHeight, before / 1024,
+                    image.getWidth(), image.getHeight(), after / 1024, System.currentTimeMillis() - t0);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            // No metadata passed: output carries a bare JFIF header only
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    // Halving steps, then a final step to the exact size: close to bicubic quality at bilinear cost
+    private static BufferedImage scaleToFit(BufferedImage src, int maxDim, boolean alpha) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        double f = Math.min(1.0, (double) maxDim / Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * f));
+        int th = Math.max(1, (int) Math.round(h * f));
+
+        BufferedImage cur = src;
+        do {
+            w = Math.max(tw, w / 2);
+            h = Math.max(th, h / 2);
+            cur = draw(cur, w, h, alpha, null);
+        } while (w != tw || h != th);
+        return cur;
+    }
+
+    private static BufferedImage orient(BufferedImage src, int orientation) {
+        if (orientation < 2 || orientation > 8) return src;
+        int w = src.getWidth();
+        int h = src.getHeight();
+        // Maps stored pixels to display orientation (EXIF tag 0x0112)
+        AffineTransform t = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean swap = orientation >= 5;
+        return draw(src, swap ? h : w, swap ? w : h, src.getColorModel().hasAlpha(), t);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h, boolean alpha, AffineTransform t) {
+        BufferedImage out = new BufferedImage(w, h, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (t != null) {
+                g.drawImage(src, t, null);
+            } else {
+                g.drawImage(src, 0, 0, w, h, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    /** EXIF orientation (1-8) from a JPEG's APP1 segment; 1 when absent or unreadable. */
+    static int exifOrientation(Path jpeg) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(jpeg)))) {
+            if (in.readUnsignedShort() != 0xFFD8) return 1;
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Metadata segments all precede the first scan
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) return 1;
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1 && length > 14) {
+                    byte[] segment = in.readNBytes(length);
+                    int orientation = orientationFromExif(segment);
+                    if (orientation > 0) return orientation;
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    // 0 when the APP1 segment is not EXIF (e.g. XMP)
+    private static int orientationFromExif(byte[] segment) {
+        if (segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f'
+                || segment[4] != 0 || segment[5] != 0) return 0;
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd0 = tiff.getInt(4);
+        int entries = tiff.getShort(ifd0) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd0 + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+}
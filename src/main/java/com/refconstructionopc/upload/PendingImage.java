@@ -0,0 +1,76 @@
+package com.refconstructionopc.upload;
+
+import java.nio.file.Path;
+
+/**
+ * One incoming file of a project create: spooled to disk, hashed, and resolved to a stored
+ * asset either before the upload phase (content already stored, or repeated earlier in the
+ * same request) or by uploading it. Closing deletes the spool file.
+ */
+public final class PendingImage implements AutoCloseable {
+    private final SpooledUpload file;
+    private final String contentHash;
+    private final String subFolder;
+    private final PendingImage duplicateOf;
+    private final String storedPublicId;
+    private volatile String uploadedPublicId;
+
+    public PendingImage(SpooledUpload file, String contentHash, String subFolder,
+                        PendingImage duplicateOf, String storedPublicId) {
+        this.file = file;
+        this.contentHash = contentHash;
+        this.subFolder = subFolder;
+        this.duplicateOf = duplicateOf;
+        this.storedPublicId = storedPublicId;
+    }
+
+    public Path path() {
+        return file.path();
+    }
+
+    public long size() {
+        return file.getSize();
+    }
+
+    public String contentHash() {
+        return contentHash;
+    }
+
+    public String subFolder() {
+        return subFolder;
+    }
+
+    // Same content as an earlier file of this request
+    public PendingImage duplicateOf() {
+        return duplicateOf;
+    }
+
+    // public_id of the already-stored asset with this content, if any
+    public String storedPublicId() {
+        return storedPublicId;
+    }
+
+    public String uploadedPublicId() {
+        return uploadedPublicId;
+    }
+
+    public synchronized void setUploadedPublicId(String uploadedPublicId) {
+        this.uploadedPublicId = uploadedPublicId;
+    }
+
+    // Clears and returns it, so of two threads cleaning up only one gets it
+    public synchronized String takeUploadedPublicId() {
+        String id = uploadedPublicId;
+        uploadedPublicId = null;
+        return id;
+    }
+
+    public boolean needsUpload() {
+        return duplicateOf == null && storedPublicId == null && uploadedPublicId == null;
+    }
+
+    @Override
+    public void close() {
+        file.close();
+    }
+}
@@ -0,0 +1,223 @@
+package com.refconstructionopc.upload;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads an image by URL into the spool directory, for imports from other sites.
+ *
+ * Only http(s), only public hosts (unless imports.allow-private-hosts), at most
+ * MAX_REDIRECTS hops with every hop checked again, and never more than
+ * spring.servlet.multipart.max-file-size bytes, so a manifest cannot reach internal
+ * services or fill the disk.
+ *
+ * Hosts are resolved once, by the client's DNS resolver: the addresses it checks are the
+ * ones the client connects to, so a host cannot pass the check and then resolve elsewhere.
+ * A whole fetch, redirects and body included, is cut off after imports.fetch-timeout-seconds;
+ * as the deadline is checked between reads it can overrun by one stalled read
+ * (imports.read-timeout-seconds).
+ */
+@Component
+public class RemoteImageFetcher implements Closeable {
+    private static final int MAX_REDIRECTS = 3;
+    private static final Set<Integer> REDIRECTS = Set.of(301, 302, 303, 307, 308);
+
+    private final CloseableHttpClient client;
+    private final int connectTimeoutMillis;
+
+    @Value("${imports.fetch-timeout-seconds:60}")
+    private long fetchTimeoutSeconds;
+
+    @Value("${imports.read-timeout-seconds:10}")
+    private long readTimeoutSeconds;
+
+    @Value("${imports.allow-private-hosts:false}")
+    private boolean allowPrivateHosts;
+
+    @Value("${spring.servlet.multipart.max-file-size:25MB}")
+    private DataSize maxFileSize;
+
+    @Value("${uploads.spool-dir:${java.io.tmpdir}/project-uploads}")
+    private String spoolDir;
+
+    public RemoteImageFetcher(@Value("${imports.connect-timeout-seconds:10}") long connectTimeoutSeconds) {
+        this.connectTimeoutMillis = (int) TimeUnit.SECONDS.toMillis(connectTimeoutSeconds);
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build(),
+                this::resolve);
+        // Enough for every import lane to fetch from the same site at once
+        connections.setMaxTotal(64);
+        connections.setDefaultMaxPerRoute(16);
+        // Pooled connections the site closed meanwhile (often right after a redirect) are
+        // checked before reuse when idle for a second, and a GET that got no response on one
+        // is sent once more on a fresh connection. Timeouts and refused hosts are not retried.
+        connections.setValidateAfterInactivity(1000);
+        this.client = HttpClients.custom()
+                .setConnectionManager(connections)
+                .disableRedirectHandling() // followed by hand, see fetch()
+                .setRetryHandler(new DefaultHttpRequestRetryHandler(1, false))
+                .disableCookieManagement()
+                .build();
+    }
+
+    public SpooledUpload fetch(String url) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(fetchTimeoutSeconds);
+        URI uri = parse(url);
+        for (int hop = 0; ; hop++) {
+            checkDeadline(deadline, uri);
+            URI current = uri;
+            HttpGet request = new HttpGet(current);
+            request.setConfig(RequestConfig.custom()
+                    .setConnectTimeout(connectTimeoutMillis)
+                    .setConnectionRequestTimeout(connectTimeoutMillis)
+                    .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds))
+                    .build());
+            request.setHeader("Accept", "image/*");
+
+            try (CloseableHttpResponse response = client.execute(request)) {
+                int status = response.getStatusLine().getStatusCode();
+                if (REDIRECTS.contains(status)) {
+                    if (hop >= MAX_REDIRECTS) throw new IOException("Too many redirects: " + url);
+                    Header location = response.getFirstHeader("Location");
+                    if (location == null) throw new IOException("Redirect without Location: " + current);
+                    uri = parse(current.resolve(location.getValue()).toString());
+                    continue;
+                }
+                if (status != 200) throw new IOException("GET " + uri + " returned " + status);
+
+                HttpEntity entity = response.getEntity();
+                if (entity == null) throw new IOException("GET " + uri + " returned no body");
+                Header type = entity.getContentType();
+                String contentType = (type == null) ? null : type.getValue();
+                if (contentType != null && !contentType.startsWith("image/")
+                        && !contentType.startsWith("application/octet-stream")) {
+                    throw new IOException("Not an image (" + contentType + "): " + uri);
+                }
+                if (entity.getContentLength() > maxFileSize.toBytes()) {
+                    throw new IOException("Larger than " + maxFileSize.toBytes() + " bytes: " + uri);
+                }
+                // Not closed on its own: that would drain the rest of the body, closing the response drops it
+                InputStream body = new DeadlineInputStream(entity.getContent(), deadline, uri);
+                return SpooledUpload.of(body, maxFileSize.toBytes(), filename(uri), contentType, Path.of(spoolDir));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    private static URI parse(String url) throws IOException {
+        if (url == null || url.isBlank()) throw new IOException("Image URL is required");
+        URI uri;
+        try {
+            uri = new URI(url.trim());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid image URL: " + url);
+        }
+        String scheme = (uri.getScheme() == null) ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new IOException("Only http(s) image URLs are supported: " + url);
+        }
+        return uri;
+    }
+
+    // The client's only DNS lookup; refuses the host if any of its addresses is not public
+    private InetAddress[] resolve(String host) throws UnknownHostException {
+        InetAddress[] addresses = InetAddress.getAllByName(host);
+        if (allowPrivateHosts) return addresses;
+        for (InetAddress address : addresses) {
+            if (isPrivate(address)) {
+                throw new UnknownHostException("Refusing to fetch from a private address: " + host);
+            }
+        }
+        return addresses;
+    }
+
+    static boolean isPrivate(InetAddress address) throws UnknownHostException {
+        byte[] b = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // IPv4-compatible ::a.b.c.d and IPv4-mapped ::ffff:a.b.c.d reach the IPv4 address
+            boolean v4Prefix = Arrays.equals(b, 0, 10, new byte[10], 0, 10)
+                    && ((b[10] == 0 && b[11] == 0) || (b[10] == (byte) 0xff && b[11] == (byte) 0xff));
+            if (v4Prefix) return isPrivate(InetAddress.getByAddress(Arrays.copyOfRange(b, 12, 16)));
+            if ((b[0] & 0xfe) == 0xfc) return true; // fc00::/7 unique local, e.g. fd00:ec2::254
+        } else {
+            if (b[0] == 0) return true; // 0.0.0.0/8, reaches this host
+            if (b[0] == 100 && (b[1] & 0xc0) == 64) return true; // 100.64.0.0/10 carrier-grade NAT
+            if ((b[0] & 0xf0) == 0xf0) return true; // 240.0.0.0/4 reserved and broadcast
+        }
+        return address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress();
+    }
+
+    private void checkDeadline(long deadline, URI uri) throws SocketTimeoutException {
+        if (System.nanoTime() > deadline) {
+            throw new SocketTimeoutException("Fetching " + uri + " took over " + fetchTimeoutSeconds + " s");
+        }
+    }
+
+    // Fails the read once the fetch is past its deadline, so a slow body cannot hold a lane
+    private final class DeadlineInputStream extends FilterInputStream {
+        private final long deadline;
+        private final URI uri;
+
+        DeadlineInputStream(InputStream in, long deadline, URI uri) {
+            super(in);
+            this.deadline = deadline;
+            this.uri = uri;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkDeadline(deadline, uri);
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            checkDeadline(deadline, uri);
+            return super.read(buffer, off, len);
+        }
+    }
+
+    private static String filename(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty()) return null;
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.refconstructionopc.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries transient failures (network errors, throttling, 5xx) with exponential backoff
+ * and full jitter: attempt n sleeps a random time in [0, min(maxDelay, baseDelay * 2^n)),
+ * so clients that failed together do not retry together.
+ */
+public class RetryPolicy {
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelay.toMillis();
+        this.maxDelayMs = maxDelay.toMillis();
+    }
+
+    public <T> T execute(String what, AdaptiveConcurrencyLimiter.Call<T> call) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.run();
+            } catch (InterruptedIOException | AdaptiveConcurrencyLimiter.SlotTimeoutException e) {
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) throw e;
+                long delay = delayMs(attempt);
+                log.warn("{} failed (attempt {}/{}), retrying in {} ms: {}",
+                        what, attempt, maxAttempts, delay, e.toString());
+                sleep(delay);
+            }
+        }
+    }
+
+    static boolean isTransient(Exception e) {
+        if (e instanceof IOException) return true;
+        return e instanceof RuntimeException re && AdaptiveConcurrencyLimiter.isOverload(re);
+    }
+
+    long delayMs(int attempt) {
+        long cap = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return (cap <= 0) ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static void sleep(long ms) throws InterruptedIOException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during retry backoff");
+        }
+    }
+}
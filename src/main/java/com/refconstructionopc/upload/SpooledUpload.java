@@ -0,0 +1,136 @@
+package com.refconstructionopc.upload;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * A multipart part moved into a private temp file so it can be uploaded straight from disk,
+ * or outlive its HTTP request (async creates).
+ *
+ * transferTo(File) lets Tomcat rename its own part file when both live on the same
+ * filesystem, so the content is never copied into the heap. The file is deleted on close.
+ */
+public final class SpooledUpload implements MultipartFile, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SpooledUpload.class);
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,8}$");
+
+    private final Path path;
+    private final long size;
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+
+    private SpooledUpload(Path path, long size, String name, String originalFilename, String contentType) {
+        this.path = path;
+        this.size = size;
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+    }
+
+    public static SpooledUpload of(MultipartFile file, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve("upload-" + UUID.randomUUID() + extension(file.getOriginalFilename()));
+        try {
+            file.transferTo(target.toFile());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return new SpooledUpload(target, Files.size(target), file.getName(),
+                file.getOriginalFilename(), file.getContentType());
+    }
+
+    // A stream of unknown length (e.g. a download), refused once it passes maxBytes
+    public static SpooledUpload of(InputStream in, long maxBytes, String originalFilename, String contentType,
+                                   Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve("upload-" + UUID.randomUUID() + extension(originalFilename));
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW)) {
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                size += n;
+                if (size > maxBytes) throw new IOException("Larger than " + maxBytes + " bytes");
+                out.write(buffer, 0, n);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return new SpooledUpload(target, size, "file", originalFilename, contentType);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    // Hands the file over (rename); close() is then a no-op
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.move(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String extension(String filename) {
+        if (filename == null) return "";
+        var m = SAFE_EXTENSION.matcher(filename);
+        return m.find() ? m.group().toLowerCase() : "";
+    }
+}
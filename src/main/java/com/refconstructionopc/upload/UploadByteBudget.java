@@ -0,0 +1,118 @@
+package com.refconstructionopc.upload;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-wide budget of upload bytes in flight. A create reserves its request size before
+ * the body is read and gives it back when the create is over; when the budget is spent
+ * further creates are refused instead of queued, so a burst degrades into fast 429s rather
+ * than rejected executor tasks or heap exhaustion halfway through a request.
+ *
+ * A reservation larger than the whole budget is clamped to it, so one maximum-size
+ * request is always admitted on an idle node.
+ *
+ * Bytes alone do not bound the work: many small creates fit in the budget yet each holds
+ * a worker, a spool directory and upload slots. So every reservation also takes one of
+ * maxConcurrent create slots, and is refused when none is free.
+ */
+public class UploadByteBudget {
+    private final long capacity;
+    private final int maxConcurrent;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public UploadByteBudget(long capacity) {
+        this(capacity, Integer.MAX_VALUE);
+    }
+
+    public UploadByteBudget(long capacity, int maxConcurrent) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be >= 1");
+        this.capacity = capacity;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /** Reserves a create slot and bytes, or returns null without waiting when either is short. */
+    public Reservation tryReserve(long bytes) {
+        if (active.incrementAndGet() > maxConcurrent) {
+            active.decrementAndGet();
+            rejected.incrementAndGet();
+            return null;
+        }
+        long amount = Math.max(0, Math.min(bytes, capacity));
+        while (true) {
+            long current = reserved.get();
+            if (current + amount > capacity) {
+                active.decrementAndGet();
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (reserved.compareAndSet(current, current + amount)) {
+                admitted.incrementAndGet();
+                return new Reservation(amount);
+            }
+        }
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getReserved() {
+        return reserved.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Bytes and a slot held for one create. close() is idempotent. An owner that hands the create to
+     * another thread calls retain(); the new owner then closes it when the work is done.
+     */
+    public final class Reservation implements AutoCloseable {
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile boolean retained;
+
+        private Reservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public void retain() {
+            retained = true;
+        }
+
+        public boolean isRetained() {
+            return retained;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                reserved.addAndGet(-bytes);
+                active.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.refconstructionopc.upload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+
+/**
+ * Upload meters shared by the storage backends:
+ * images.upload (timer, tags backend/path/outcome, percentile histogram) and
+ * images.upload.bytes (counter of bytes stored, tags backend/path).
+ * path is "small" for single-request uploads and "large" for chunked or streamed ones.
+ */
+public class UploadMetrics {
+    public static final String SMALL = "small";
+    public static final String LARGE = "large";
+
+    private final MeterRegistry registry;
+    private final String backend;
+
+    public UploadMetrics(MeterRegistry registry, String backend) {
+        this.registry = registry;
+        this.backend = backend;
+    }
+
+    public String record(String path, long bytes, AdaptiveConcurrencyLimiter.Call<String> upload) throws IOException {
+        Timer.Sample sample = start();
+        boolean stored = false;
+        try {
+            String key = upload.run();
+            stored = true;
+            return key;
+        } finally {
+            if (stored) success(sample, path, bytes);
+            else failure(sample, path);
+        }
+    }
+
+    // For callers that only learn the size once the upload is done
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void success(Timer.Sample sample, String path, long bytes) {
+        sample.stop(timer(path, "success"));
+        bytesCounter(path).increment(bytes);
+    }
+
+    public void failure(Timer.Sample sample, String path) {
+        sample.stop(timer(path, "failure"));
+    }
+
+    private Timer timer(String path, String outcome) {
+        return Timer.builder("images.upload")
+                .description("Time to store one image, retries and limiter waits included")
+                .tags("backend", backend, "path", path, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter bytesCounter(String path) {
+        return Counter.builder("images.upload.bytes")
+                .description("Bytes stored by successful uploads")
+                .baseUnit("bytes")
+                .tags("backend", backend, "path", path)
+                .register(registry);
+    }
+}
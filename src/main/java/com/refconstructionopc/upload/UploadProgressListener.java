@@ -0,0 +1,10 @@
+package com.refconstructionopc.upload;
+
+// Called as each file of a project create finishes uploading, or each item of an import is
+// done (from upload threads)
+@FunctionalInterface
+public interface UploadProgressListener {
+    UploadProgressListener NONE = (done, total) -> { };
+
+    void onUploaded(int done, int total);
+}
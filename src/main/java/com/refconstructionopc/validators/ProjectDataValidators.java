@@ -1,5 +1,6 @@
 package com.refconstructionopc.validators;
 
+import com.refconstructionopc.dto.ProjectImportItemDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.LinkedHashMap;
@@ -38,6 +39,48 @@ public  class ProjectDataValidators {
         return errors;
     }
 
+    // Direct uploads: the images are already stored, only their public ids arrive
+    public static Map<String, String> validate(
+            String title,
+            String description,
+            String serviceType,
+            String thumbnailPublicId,
+            List<String> imagePublicIds
+    ) {
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        if (isBlank(title))       errors.put("title", "title is required");
+        if (isBlank(description)) errors.put("description", "description is required");
+        if (isBlank(serviceType)) errors.put("serviceType", "serviceType is required");
+        if (isBlank(thumbnailPublicId)) errors.put("thumbnailPublicId", "thumbnailPublicId is required");
+        if (imagePublicIds == null || imagePublicIds.isEmpty()) {
+            errors.put("imagePublicIds", "imagePublicIds are required and must not be empty");
+        }
+
+        return errors;
+    }
+
+    // Imports: images arrive as URLs and are fetched by the backend
+    public static Map<String, String> validate(ProjectImportItemDTO item) {
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        if (isBlank(item.getTitle()))       errors.put("title", "title is required");
+        if (isBlank(item.getDescription())) errors.put("description", "description is required");
+        if (isBlank(item.getServiceType())) errors.put("serviceType", "serviceType is required");
+        if (isBlank(item.getThumbnailUrl())) errors.put("thumbnailUrl", "thumbnailUrl is required");
+
+        List<String> imageUrls = item.getImageUrls();
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            errors.put("imageUrls", "imageUrls are required and must not be empty");
+        } else {
+            for (int i = 0; i < imageUrls.size(); i++) {
+                if (isBlank(imageUrls.get(i))) errors.put("imageUrls[" + i + "]", "image URL must not be empty");
+            }
+        }
+
+        return errors;
+    }
+
     private static boolean isBlank(String s) {
         return s == null || s.trim().isEmpty();
     }
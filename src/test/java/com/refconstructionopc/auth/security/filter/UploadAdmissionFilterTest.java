@@ -0,0 +1,141 @@
+package com.refconstructionopc.auth.security.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.upload.UploadByteBudget;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadAdmissionFilterTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private UploadByteBudget budget;
+    private UploadAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        budget = new UploadByteBudget(100 * MB, 2);
+        filter = new UploadAdmissionFilter(budget, new ObjectMapper());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 7L);
+        ReflectionTestUtils.setField(filter, "maxRequestSize", DataSize.ofMegabytes(100));
+    }
+
+    @Test
+    void refusesWith429WhenTheBudgetIsSpentAndReleasesAfterTheRequest() throws Exception {
+        AtomicLong reservedDuringFirst = new AtomicLong();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                reservedDuringFirst.set(budget.getReserved());
+                try {
+                    // A second create arriving while the first still holds 60 MB
+                    filter.doFilter(create("/api/projects/create", 60 * MB), second, new MockFilterChain());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(create("/api/projects/create", 60 * MB), first, chain);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(60 * MB, reservedDuringFirst.get());
+        assertEquals(429, second.getStatus());
+        assertEquals("7", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("\"status\":429"));
+        assertEquals(0, budget.getReserved());
+        assertEquals(1, budget.getRejected());
+    }
+
+    @Test
+    void retainedReservationOutlivesTheRequest() throws Exception {
+        AtomicReference<UploadByteBudget.Reservation> handedOff = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                UploadByteBudget.Reservation r = (UploadByteBudget.Reservation)
+                        req.getAttribute(UploadAdmissionFilter.RESERVATION_ATTRIBUTE);
+                r.retain();
+                handedOff.set(r);
+            }
+        };
+
+        filter.doFilter(create("/api/projects/createAsync", 30 * MB), new MockHttpServletResponse(), chain);
+        assertEquals(30 * MB, budget.getReserved());
+
+        handedOff.get().close();
+        handedOff.get().close();
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test
+    void capsConcurrentCreatesWhateverTheirSize() throws Exception {
+        AtomicReference<UploadByteBudget.Reservation> handedOff = new AtomicReference<>();
+        MockFilterChain retaining = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                UploadByteBudget.Reservation r = (UploadByteBudget.Reservation)
+                        req.getAttribute(UploadAdmissionFilter.RESERVATION_ATTRIBUTE);
+                r.retain();
+                handedOff.set(r);
+            }
+        };
+        filter.doFilter(create("/api/projects/createAsync", MB), new MockHttpServletResponse(), retaining);
+        UploadByteBudget.Reservation first = handedOff.get();
+        filter.doFilter(create("/api/projects/import", 1024), new MockHttpServletResponse(), retaining);
+
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        filter.doFilter(create("/api/projects/createAsync", MB), third, new MockFilterChain());
+        assertEquals(429, third.getStatus());
+        assertEquals(2, budget.getActive());
+
+        first.close();
+        handedOff.get().close();
+        assertEquals(0, budget.getActive());
+        assertEquals(0, budget.getReserved());
+    }
+
+    @Test
+    void unknownLengthReservesMaxRequestSize() throws Exception {
+        MockHttpServletRequest chunked = create("/api/projects/create", -1);
+        AtomicLong seen = new AtomicLong();
+        filter.doFilter(chunked, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                seen.set(budget.getReserved());
+            }
+        });
+        assertEquals(100 * MB, seen.get());
+
+        MockHttpServletResponse other = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/projects/getAll"), other, new MockFilterChain());
+        assertEquals(200, other.getStatus());
+        assertEquals(0, budget.getReserved());
+    }
+
+    private static MockHttpServletRequest create(String path, long contentLength) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path) {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+        request.setContentType("multipart/form-data; boundary=x");
+        return request;
+    }
+}
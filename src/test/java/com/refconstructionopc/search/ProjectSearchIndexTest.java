@@ -0,0 +1,53 @@
+package com.refconstructionopc.search;
+
+import com.refconstructionopc.enums.ProjectSearchMode;
+import com.refconstructionopc.repository.ProjectRepository;
+import com.refconstructionopc.repository.projection.ProjectSearchDocumentView;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectSearchIndexTest {
+
+    @Test
+    void catchUpIndexesProjectsCreatedOnOtherNodes() {
+        ProjectRepository repository = mock(ProjectRepository.class);
+        when(repository.findSearchDocumentsAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(repository.findSearchDocumentsAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(doc(1L, "Kitchen remodel")));
+
+        ProjectSearchIndex index = new ProjectSearchIndex(repository);
+        ReflectionTestUtils.setField(index, "searchMode", ProjectSearchMode.INDEX);
+        index.build();
+        assertThat(index.search("bathroom")).isEmpty();
+
+        // Another node committed id 3, then id 2 (taken earlier, committed later)
+        when(repository.findSearchDocumentsAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(doc(1L, "Kitchen remodel"), doc(3L, "Bathroom tiling")));
+        index.catchUp();
+        assertThat(index.search("bathroom")).containsExactly(3);
+
+        when(repository.findSearchDocumentsAfter(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(doc(1L, "Kitchen remodel"), doc(2L, "Bathroom vanity"), doc(3L, "Bathroom tiling")));
+        index.catchUp();
+        assertThat(index.search("bathroom")).containsExactly(3, 2);
+    }
+
+    private static ProjectSearchDocumentView doc(Long id, String title) {
+        return new ProjectSearchDocumentView() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+            public String getDescription() { return ""; }
+            public String getServiceType() { return "Renovation"; }
+        };
+    }
+}
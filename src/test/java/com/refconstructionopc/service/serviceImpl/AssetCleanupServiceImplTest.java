@@ -0,0 +1,144 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.model.AssetCleanup;
+import com.refconstructionopc.model.ImageAsset;
+import com.refconstructionopc.repository.AssetCleanupRepository;
+import com.refconstructionopc.repository.ImageAssetRepository;
+import com.refconstructionopc.service.ImageStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker runs outside any transaction
+@Import({AssetCleanupServiceImpl.class, SimpleMeterRegistry.class})
+class AssetCleanupServiceImplTest {
+
+    @Autowired
+    private AssetCleanupServiceImpl assetCleanupService;
+    @Autowired
+    private AssetCleanupRepository assetCleanupRepository;
+    @Autowired
+    private ImageAssetRepository imageAssetRepository;
+
+    @MockitoBean
+    private ImageStorageService imageStorageService;
+    @MockitoBean
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void clearOutbox() {
+        assetCleanupRepository.deleteAll();
+    }
+
+    @Test
+    void drainsInBatchesOfAtMostOneHundred() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 250; i++) ids.add("projects/x/img-" + i);
+        assetCleanupService.enqueue(ids);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(imageStorageService.deleteByKeys(any())).thenAnswer(inv -> {
+            Collection<String> batch = inv.getArgument(0);
+            batchSizes.add(batch.size());
+            return new HashSet<>(batch);
+        });
+
+        assertEquals(250, assetCleanupService.drain());
+
+        assertEquals(List.of(100, 100, 50), batchSizes);
+        assertEquals(0, assetCleanupRepository.count());
+    }
+
+    @Test
+    void undeletedIdsAreRescheduledWithBackoff() throws Exception {
+        assetCleanupService.enqueue(List.of("projects/y/gone", "projects/y/stuck"));
+        when(imageStorageService.deleteByKeys(any())).thenReturn(Set.of("projects/y/gone"));
+
+        assertEquals(1, assetCleanupService.drain());
+
+        List<AssetCleanup> left = assetCleanupRepository.findAll();
+        assertEquals(1, left.size());
+        assertEquals("projects/y/stuck", left.get(0).getPublicId());
+        assertEquals(1, left.get(0).getAttempts());
+        assertTrue(left.get(0).getNextAttemptAt().isAfter(Instant.now()));
+
+        // Not due yet: the next run leaves it alone
+        assertEquals(0, assetCleanupService.drain());
+        verify(imageStorageService, times(1)).deleteByKeys(any());
+    }
+
+    @Test
+    void failedCallsKeepEveryRowForLater() throws Exception {
+        assetCleanupService.enqueue(List.of("projects/z/a", "projects/z/b"));
+        when(imageStorageService.deleteByKeys(any())).thenThrow(new IOException("Rate Limit Exceeded"));
+
+        assertEquals(0, assetCleanupService.drain());
+
+        List<AssetCleanup> left = assetCleanupRepository.findAll();
+        assertEquals(2, left.size());
+        assertTrue(left.stream().allMatch(r -> r.getLastError().contains("Rate Limit Exceeded")));
+    }
+
+    @Test
+    void deferredDeletesWaitAndCanBeCancelled() throws Exception {
+        assetCleanupService.enqueueAt(List.of("projects/v/used", "projects/v/unused"),
+                Instant.now().plusSeconds(3600));
+
+        assertEquals(0, assetCleanupService.drain());
+        verifyNoInteractions(imageStorageService);
+
+        assetCleanupService.cancel(List.of("projects/v/used"));
+        List<AssetCleanup> left = assetCleanupRepository.findAll();
+        assertEquals(1, left.size());
+        assertEquals("projects/v/unused", left.get(0).getPublicId());
+    }
+
+    @Test
+    void neverDeletesAnAssetThatIsStillReferenced() throws Exception {
+        ImageAsset asset = new ImageAsset();
+        asset.setContentHash("hash-still-used");
+        asset.setPublicId("projects/u/shared");
+        asset.setRefCount(1);
+        asset.setCreatedAt(Instant.now());
+        imageAssetRepository.save(asset);
+        assetCleanupService.enqueue(List.of("projects/u/shared", "projects/u/orphan"));
+        when(imageStorageService.deleteByKeys(any())).thenAnswer(inv -> new HashSet<>(inv.getArgument(0)));
+
+        assertEquals(1, assetCleanupService.drain());
+
+        verify(imageStorageService).deleteByKeys(Set.of("projects/u/orphan"));
+        assertEquals(0, assetCleanupRepository.count());
+        imageAssetRepository.delete(asset);
+    }
+
+    @Test
+    void detachedEnqueueOutsideATransactionWritesImmediately() {
+        assetCleanupService.enqueueDetached(List.of("projects/w/orphan"));
+
+        assertEquals(1, assetCleanupRepository.count());
+        verifyNoInteractions(taskScheduler);
+    }
+}
@@ -0,0 +1,190 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.refconstructionopc.dto.DirectUploadFinalizeDTO;
+import com.refconstructionopc.dto.DirectUploadSlotDTO;
+import com.refconstructionopc.dto.DirectUploadTicketDTO;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Signing and finalizing against a local stub of the Admin API, which reports the
+ * resources put into {@link #stored} as uploaded.
+ */
+class CloudinaryDirectUploadServiceImplTest {
+
+    private HttpServer stub;
+    // public_id -> {bytes, format}
+    private final Map<String, Object[]> stored = new ConcurrentHashMap<>();
+    private Cloudinary cloudinary;
+    private ProjectService projectService;
+    private AssetCleanupService assetCleanupService;
+    private CloudinaryDirectUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", this::handle);
+        stub.start();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", "test");
+        config.put("api_key", "key");
+        config.put("api_secret", "secret");
+        config.put("upload_prefix", "http://127.0.0.1:" + stub.getAddress().getPort());
+        cloudinary = new Cloudinary(config);
+        projectService = mock(ProjectService.class);
+        assetCleanupService = mock(AssetCleanupService.class);
+        service = new CloudinaryDirectUploadServiceImpl(cloudinary,
+                new AdaptiveConcurrencyLimiter(4, 1, 4, 0.9, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                new RetryPolicy(1, Duration.ZERO, Duration.ZERO), projectService, assetCleanupService,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "baseFolder", "projects");
+        ReflectionTestUtils.setField(service, "ttlMinutes", 30L);
+        ReflectionTestUtils.setField(service, "maxImages", 10);
+        ReflectionTestUtils.setField(service, "allowedFormats", "jpg,png");
+        ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void signsOneUploadPerSlotAndFinalizesWhatWasStored() throws Exception {
+        DirectUploadTicketDTO ticket = service.sign(3);
+
+        String folder = "projects/" + ticket.getUniqueId() + "/";
+        assertThat(ticket.getThumbnail().getPublicId()).isEqualTo(folder + "thumbnail");
+        assertThat(ticket.getImages()).extracting(DirectUploadSlotDTO::getPublicId)
+                .containsExactly(folder + "image-1", folder + "image-2", folder + "image-3");
+        // What Cloudinary checks: the signature over exactly the parameters the client sends
+        Map<String, Object> params = new HashMap<>();
+        params.put("timestamp", ticket.getTimestamp());
+        params.put("public_id", folder + "image-2");
+        params.put("overwrite", false);
+        params.put("allowed_formats", "jpg,png");
+        assertThat(ticket.isOverwrite()).isFalse();
+        assertThat(ticket.getImages().get(1).getSignature())
+                .isEqualTo(cloudinary.apiSignRequest(params, "secret"));
+        // Every slot is swept once its signature can no longer be used, unless finalized first
+        List<String> slots = List.of(folder + "thumbnail", folder + "image-1", folder + "image-2", folder + "image-3");
+        verify(assetCleanupService).enqueueAt(eq(slots),
+                argThat(at -> at.isAfter(Instant.ofEpochSecond(ticket.getTimestamp()).plus(Duration.ofHours(1)))));
+
+        stored.put(folder + "thumbnail", new Object[]{20_000, "jpg"});
+        stored.put(folder + "image-1", new Object[]{500_000, "png"});
+        stored.put(folder + "image-3", new Object[]{30_000, "jpg"});
+        DirectUploadFinalizeDTO request = finalizeRequest(ticket, List.of(folder + "image-1", folder + "image-3"));
+
+        service.finalizeUpload(request);
+
+        verify(projectService).createFromStoredImages(ticket.getUniqueId(), "Kitchen", "Remodel", "Interior",
+                folder + "thumbnail", List.of(folder + "image-1", folder + "image-3"));
+        // The used slots are kept; the unused one stays queued in case the client uploads it anyway
+        verify(assetCleanupService).cancel(List.of(folder + "thumbnail", folder + "image-1", folder + "image-3"));
+        verify(assetCleanupService, never()).enqueue(any());
+    }
+
+    @Test
+    void rejectsTamperedTicketsAndForeignIds() {
+        DirectUploadTicketDTO ticket = service.sign(1);
+        String folder = "projects/" + ticket.getUniqueId() + "/";
+
+        DirectUploadFinalizeDTO moreImages = finalizeRequest(ticket, List.of(folder + "image-1", folder + "image-2"));
+        moreImages.setImageCount(2);
+        assertThatThrownBy(() -> service.finalizeUpload(moreImages))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("ticket");
+
+        DirectUploadFinalizeDTO foreign = finalizeRequest(ticket, List.of("projects/other-project/image-1"));
+        assertThatThrownBy(() -> service.finalizeUpload(foreign))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Not a slot");
+
+        verifyNoInteractions(projectService);
+    }
+
+    @Test
+    void missingImagesFailWithoutDeletingAndOversizedOnesVoidTheTicket() {
+        DirectUploadTicketDTO ticket = service.sign(2);
+        String folder = "projects/" + ticket.getUniqueId() + "/";
+        DirectUploadFinalizeDTO request = finalizeRequest(ticket, List.of(folder + "image-1", folder + "image-2"));
+
+        stored.put(folder + "thumbnail", new Object[]{20_000, "jpg"});
+        stored.put(folder + "image-1", new Object[]{20_000, "jpg"});
+        assertThatThrownBy(() -> service.finalizeUpload(request))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Not uploaded yet");
+        verify(assetCleanupService, never()).enqueue(any());
+
+        stored.put(folder + "image-2", new Object[]{5_000_000, "jpg"});
+        assertThatThrownBy(() -> service.finalizeUpload(request))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Too large");
+        // The ticket is void: all its slots go, not only the rejected one
+        verify(assetCleanupService).enqueue(eq(List.of(folder + "thumbnail", folder + "image-1", folder + "image-2")));
+        verifyNoInteractions(projectService);
+    }
+
+    private static DirectUploadFinalizeDTO finalizeRequest(DirectUploadTicketDTO ticket, List<String> images) {
+        DirectUploadFinalizeDTO request = new DirectUploadFinalizeDTO();
+        request.setUniqueId(ticket.getUniqueId());
+        request.setImageCount(ticket.getImageCount());
+        request.setExpiresAt(ticket.getExpiresAt());
+        request.setTicket(ticket.getTicket());
+        request.setTitle("Kitchen");
+        request.setDescription("Remodel");
+        request.setServiceType("Interior");
+        request.setThumbnailPublicId(ticket.getThumbnail().getPublicId());
+        request.setImagePublicIds(images);
+        return request;
+    }
+
+    // GET /v1_1/test/resources/image/upload?public_ids[]=...
+    private void handle(HttpExchange exchange) throws IOException {
+        StringBuilder json = new StringBuilder("{\"resources\":[");
+        String query = Optional.ofNullable(exchange.getRequestURI().getRawQuery()).orElse("");
+        String sep = "";
+        for (String pair : query.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length < 2 || !URLDecoder.decode(kv[0], StandardCharsets.UTF_8).startsWith("public_ids")) continue;
+            String id = URLDecoder.decode(kv[1], StandardCharsets.UTF_8);
+            Object[] resource = stored.get(id);
+            if (resource == null) continue;
+            json.append(sep).append("{\"public_id\":\"").append(id).append("\",\"bytes\":").append(resource[0])
+                    .append(",\"format\":\"").append(resource[1]).append("\"}");
+            sep = ",";
+        }
+        byte[] body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
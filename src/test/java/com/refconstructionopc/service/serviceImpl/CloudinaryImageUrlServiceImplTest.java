@@ -0,0 +1,40 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.refconstructionopc.dto.ImageUrlsDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CloudinaryImageUrlServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CloudinaryImageUrlServiceImpl service = new CloudinaryImageUrlServiceImpl(
+            new Cloudinary(Map.of("cloud_name", "demo")), List.of(640, 320, 640), 640, 100, meterRegistry);
+
+    @Test
+    void buildsOneAutoFormatVariantPerWidth() {
+        ImageUrlsDTO urls = service.urls("projects/p1/kitchen");
+
+        String base = "https://res.cloudinary.com/demo/image/upload/c_limit,f_auto,q_auto,";
+        assertThat(urls.getSrc()).isEqualTo(base + "w_640/v1/projects/p1/kitchen");
+        assertThat(urls.getSrcset()).isEqualTo(base + "w_320/v1/projects/p1/kitchen 320w, "
+                + base + "w_640/v1/projects/p1/kitchen 640w");
+    }
+
+    @Test
+    void memoizesPerPublicId() {
+        ImageUrlsDTO first = service.urls("projects/p1/kitchen");
+
+        assertThat(service.urls("projects/p1/kitchen")).isSameAs(first);
+        assertThat(service.urls("projects/p1/bath")).isNotSameAs(first);
+        assertThat(service.urls(null)).isNull();
+        assertThat(service.urls(" ")).isNull();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "imageUrls").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,155 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Failure injection against a local stub of the upload API: transient errors are retried
+ * with backoff, client errors are not, and a chunked upload that loses a chunk resends
+ * only that chunk.
+ */
+class CloudinaryServiceImplRetryTest {
+    private static final int CHUNK = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer stub;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private final List<String> uploadIds = new CopyOnWriteArrayList<>();
+    // Request numbers (1-based) answered with the status code below instead of success
+    private volatile Set<Integer> failing = Set.of();
+    private volatile int failureStatus = 503;
+    private CloudinaryServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", this::handle);
+        stub.start();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", "test");
+        config.put("api_key", "key");
+        config.put("api_secret", "secret");
+        config.put("upload_prefix", "http://127.0.0.1:" + stub.getAddress().getPort());
+        service = new CloudinaryServiceImpl(new Cloudinary(config),
+                new AdaptiveConcurrencyLimiter(4, 1, 4, 0.9, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                new RetryPolicy(4, Duration.ofMillis(1), Duration.ofMillis(5)), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "baseFolder", "projects");
+        ReflectionTestUtils.setField(service, "largeThreshold", 2L * CHUNK);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK);
+        ReflectionTestUtils.setField(service, "spoolDir", tempDir.resolve("spool").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        int n = requests.incrementAndGet();
+        String range = exchange.getRequestHeaders().getFirst("Content-Range");
+        if (range != null) {
+            ranges.add(range);
+            uploadIds.add(exchange.getRequestHeaders().getFirst("X-Unique-Upload-Id"));
+        }
+        if (failing.contains(n)) {
+            byte[] body = (failureStatus == 400
+                    ? "{\"error\":{\"message\":\"Invalid image file\"}}"
+                    : "<html>Service Unavailable</html>").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(failureStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            return;
+        }
+        byte[] body = "{\"public_id\":\"projects/test/stub\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void smallUploadIsRetriedOnTransientErrors() throws IOException {
+        failing = Set.of(1, 2);
+
+        assertThat(service.smartUpload(file(CHUNK), "p1")).isEqualTo("projects/test/stub");
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void clientErrorsAreNotRetried() throws IOException {
+        failing = Set.of(1);
+        failureStatus = 400;
+        Path file = file(CHUNK);
+
+        assertThatThrownBy(() -> service.smartUpload(file, "p1")).hasMessageContaining("Invalid image file");
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesGiveUpAfterMaxAttempts() throws IOException {
+        failing = Set.of(1, 2, 3, 4, 5);
+        Path file = file(CHUNK);
+
+        assertThatThrownBy(() -> service.smartUpload(file, "p1")).hasMessageContaining("503");
+        assertThat(requests.get()).isEqualTo(4);
+    }
+
+    @Test
+    void chunkedUploadResumesAtTheFailedChunk() throws IOException {
+        int total = 3 * CHUNK + 100;
+        failing = Set.of(2); // second chunk fails once
+
+        assertThat(service.smartUpload(file(total), "p1")).isEqualTo("projects/test/stub");
+
+        String second = "bytes " + CHUNK + "-" + (2 * CHUNK - 1) + "/" + total;
+        assertThat(ranges).containsExactly(
+                "bytes 0-" + (CHUNK - 1) + "/" + total,
+                second,
+                second,
+                "bytes " + (2 * CHUNK) + "-" + (3 * CHUNK - 1) + "/" + total,
+                "bytes " + (3 * CHUNK) + "-" + (total - 1) + "/" + total);
+        assertThat(Set.copyOf(uploadIds)).hasSize(1);
+    }
+
+    private Path file(int size) throws IOException {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) bytes[i] = (byte) i;
+        return Files.write(tempDir.resolve("img-" + size + ".jpg"), bytes);
+    }
+}
@@ -0,0 +1,185 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.RetryPolicy;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uploads through the real Cloudinary HTTP client against a local stub endpoint and
+ * checks the bytes allocated by the uploading thread do not grow with the file size.
+ */
+class CloudinaryServiceImplStreamingTest {
+    private static final int MB = 1024 * 1024;
+    private static final int CHUNK = 2 * MB;
+    private static final long LARGE_THRESHOLD = 8L * MB;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer stub;
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private CloudinaryServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            byte[] buf = new byte[64 * 1024];
+            try (InputStream in = exchange.getRequestBody()) {
+                int n;
+                while ((n = in.read(buf)) > 0) receivedBytes.addAndGet(n);
+            }
+            byte[] body = "{\"public_id\":\"projects/test/stub\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("cloud_name", "test");
+        config.put("api_key", "key");
+        config.put("api_secret", "secret");
+        config.put("upload_prefix", "http://127.0.0.1:" + stub.getAddress().getPort());
+        service = new CloudinaryServiceImpl(new Cloudinary(config), new AdaptiveConcurrencyLimiter(
+                4, 1, 4, 0.9, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                new RetryPolicy(1, Duration.ZERO, Duration.ZERO), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "baseFolder", "projects");
+        ReflectionTestUtils.setField(service, "largeThreshold", LARGE_THRESHOLD);
+        ReflectionTestUtils.setField(service, "chunkSize", CHUNK);
+        ReflectionTestUtils.setField(service, "spoolDir", tempDir.resolve("spool").toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void smallUploadsStreamFromDisk() throws IOException {
+        upload(1 * MB); // warm up client classes and connection pool
+
+        long small = upload(1 * MB);
+        long large = upload(7 * MB);
+
+        // With getBytes() the 7 MB upload alone would allocate more than 7 MB
+        assertThat(small).isLessThan(MB);
+        assertThat(large).isLessThan(MB);
+    }
+
+    @Test
+    void chunkedUploadsAllocateAtMostChunkBuffers() throws IOException {
+        upload(9 * MB);
+
+        long nine = upload(9 * MB);
+        long twentyFour = upload(24 * MB);
+
+        // uploadLarge reuses chunk-sized buffers; growth is bounded by chunk_size, not file size
+        assertThat(nine).isLessThan(4L * CHUNK);
+        assertThat(twentyFour).isLessThan(4L * CHUNK);
+    }
+
+    @Test
+    void spooledFileIsDeletedAfterUpload() throws IOException {
+        upload(1 * MB);
+
+        try (var files = Files.list(tempDir.resolve("spool"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private long upload(int size) throws IOException {
+        MultipartFile file = new DiskMultipartFile(writeFile(size));
+        receivedBytes.set(0);
+
+        long before = allocatedBytes();
+        String key = service.smartUpload(file, "test");
+        long allocated = allocatedBytes() - before;
+
+        assertThat(key).isEqualTo("projects/test/stub");
+        assertThat(receivedBytes.get()).isGreaterThanOrEqualTo(size);
+        return allocated;
+    }
+
+    private Path writeFile(int size) throws IOException {
+        Path file = Files.createTempFile(tempDir, "part-", ".jpg");
+        byte[] block = new byte[64 * 1024];
+        for (int i = 0; i < block.length; i++) block[i] = (byte) (i * 31);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int written = 0; written < size; written += block.length) {
+                out.write(block, 0, Math.min(block.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    private static long allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** Behaves like Tomcat's disk-backed part: content lives in a file and is moved on transferTo. */
+    private static final class DiskMultipartFile implements MultipartFile {
+        private final Path file;
+
+        DiskMultipartFile(Path file) {
+            this.file = file;
+        }
+
+        @Override public String getName() { return "images"; }
+        @Override public String getOriginalFilename() { return "photo.jpg"; }
+        @Override public String getContentType() { return "image/jpeg"; }
+        @Override public boolean isEmpty() { return getSize() == 0; }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("upload path must not buffer the whole part");
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
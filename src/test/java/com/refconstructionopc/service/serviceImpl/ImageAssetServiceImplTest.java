@@ -0,0 +1,127 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.model.ImageAsset;
+import com.refconstructionopc.repository.ImageAssetRepository;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.upload.ImageNormalizer;
+import com.refconstructionopc.upload.PendingImage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // references commit as they would in create()
+@Import(ImageAssetServiceImpl.class)
+class ImageAssetServiceImplTest {
+
+    @Autowired
+    private ImageAssetServiceImpl imageAssetService;
+    @Autowired
+    private ImageAssetRepository imageAssetRepository;
+
+    @MockitoBean
+    private ImageStorageService imageStorageService;
+    @MockitoBean
+    private ImageNormalizer imageNormalizer;
+    @MockitoBean
+    private AssetCleanupService assetCleanupService;
+
+    @Test
+    void identicalContentIsUploadedOnceAndDeletedWithLastReference() throws Exception {
+        when(imageStorageService.smartUpload(any(Path.class), anyString())).thenReturn("projects/a/site-photo");
+
+        String first = store("a", photo("same bytes")).get(0);
+        String second = store("b", photo("same bytes")).get(0);
+
+        assertEquals("projects/a/site-photo", first);
+        assertEquals(first, second);
+        verify(imageStorageService, times(1)).smartUpload(any(Path.class), anyString());
+        assertEquals(2, refCount(first));
+
+        imageAssetService.release(first);
+        verify(assetCleanupService, never()).enqueue(any());
+
+        imageAssetService.release(first);
+        verify(assetCleanupService).enqueue(List.of(first));
+        assertTrue(imageAssetRepository.findByPublicId(first).isEmpty());
+    }
+
+    @Test
+    void untrackedKeysAreQueuedForDeletion() {
+        imageAssetService.release("projects/legacy/old");
+
+        verify(assetCleanupService).enqueue(List.of("projects/legacy/old"));
+    }
+
+    @Test
+    void repeatedFileWithinOneCreateSharesOneUpload() throws Exception {
+        when(imageStorageService.smartUpload(any(Path.class), anyString())).thenReturn("projects/c/repeated");
+
+        List<String> keys = store("c", photo("twice"), photo("twice"));
+
+        assertEquals(List.of("projects/c/repeated", "projects/c/repeated"), keys);
+        verify(imageStorageService, times(1)).smartUpload(any(Path.class), anyString());
+        assertEquals(2, refCount("projects/c/repeated"));
+    }
+
+    @Test
+    void discardOnlyDeletesWhatThisCreateUploaded() throws Exception {
+        when(imageStorageService.smartUpload(any(Path.class), anyString()))
+                .thenReturn("projects/d/kept", "projects/d/fresh");
+        store("d", photo("already stored"));
+
+        List<PendingImage> pending = imageAssetService.prepare(List.of(photo("already stored"), photo("new")), "d");
+        try {
+            for (PendingImage p : pending) imageAssetService.upload(p);
+            pending.forEach(imageAssetService::discard);
+        } finally {
+            pending.forEach(PendingImage::close);
+        }
+
+        verify(assetCleanupService).enqueueDetached(List.of("projects/d/fresh"));
+        verify(assetCleanupService, never()).enqueueDetached(List.of("projects/d/kept"));
+        assertEquals(1, refCount("projects/d/kept"));
+    }
+
+    // prepare -> upload -> reference, as ProjectServiceImpl.create does
+    private List<String> store(String subFolder, MultipartFile... files) throws Exception {
+        List<PendingImage> pending = imageAssetService.prepare(List.of(files), subFolder);
+        try {
+            List<String> keys = new ArrayList<>();
+            for (PendingImage p : pending) imageAssetService.upload(p);
+            for (PendingImage p : pending) keys.add(imageAssetService.reference(p));
+            return keys;
+        } finally {
+            pending.forEach(PendingImage::close);
+        }
+    }
+
+    private int refCount(String publicId) {
+        return imageAssetRepository.findByPublicId(publicId).map(ImageAsset::getRefCount).orElse(0);
+    }
+
+    private static MockMultipartFile photo(String content) {
+        return new MockMultipartFile("images", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalImageStorageServiceImplTest {
+
+    @TempDir
+    Path root;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalImageStorageServiceImpl storage;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        storage = new LocalImageStorageServiceImpl(meterRegistry);
+        ReflectionTestUtils.setField(storage, "root", root.toString());
+        ReflectionTestUtils.setField(storage, "baseFolder", "projects");
+    }
+
+    @Test
+    void storesFilesShardedByKeyHash() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024];
+        for (int i = 0; i < content.length; i++) content[i] = (byte) (i * 31);
+        Path source = Files.write(root.resolve("upload-1.JPG"), content);
+
+        String key = storage.smartUpload(source, "p1");
+
+        assertTrue(key.startsWith("projects/p1/"));
+        assertTrue(key.endsWith(".jpg"));
+        Path stored = storage.find(key).orElseThrow();
+        assertArrayEquals(content, Files.readAllBytes(stored));
+        // root/ab/cd/abcd....jpg
+        Path shard = root.relativize(stored);
+        assertEquals(3, shard.getNameCount());
+        assertTrue(shard.getFileName().toString().startsWith(shard.getName(0) + "" + shard.getName(1)));
+        assertTrue(Files.exists(source), "source is copied, not moved");
+    }
+
+    @Test
+    void streamsPartsAndInputStreams() throws Exception {
+        String fromPart = storage.smartUpload(new MockMultipartFile("images", "site.png", "image/png",
+                "png bytes".getBytes(StandardCharsets.UTF_8)), "p2");
+        String fromStream = storage.uploadAndGetKeyLarge(
+                new ByteArrayInputStream("stream bytes".getBytes(StandardCharsets.UTF_8)), "p2");
+
+        assertTrue(fromPart.endsWith(".png"));
+        assertEquals("png bytes", Files.readString(storage.find(fromPart).orElseThrow()));
+        assertEquals("stream bytes", Files.readString(storage.find(fromStream).orElseThrow()));
+
+        assertEquals(1, meterRegistry.get("images.upload").tags("path", "small", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("images.upload").tags("path", "large", "outcome", "success").timer().count());
+        assertEquals(9, meterRegistry.get("images.upload.bytes").tag("path", "small").counter().count());
+        assertEquals(12, meterRegistry.get("images.upload.bytes").tag("path", "large").counter().count());
+    }
+
+    @Test
+    void deletesAreIdempotent() throws Exception {
+        String key = storage.uploadAndGetKey("bytes".getBytes(StandardCharsets.UTF_8), "p3");
+
+        assertEquals(Set.of(key, "projects/p3/never-stored"),
+                storage.deleteByKeys(List.of(key, "projects/p3/never-stored")));
+        assertTrue(storage.find(key).isEmpty());
+        assertTrue(storage.find("../../etc/passwd").isEmpty());
+    }
+}
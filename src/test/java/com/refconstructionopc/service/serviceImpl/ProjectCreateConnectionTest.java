@@ -0,0 +1,146 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.auth.security.config.UploadPoolConfig;
+import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.enums.UploadExecutorMode;
+import com.refconstructionopc.repository.ProjectRepository;
+import com.refconstructionopc.search.ProjectSearchIndex;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.service.ImageUrlService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.ImageNormalizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * With a single pooled connection, reads must keep completing while a create() waits on
+ * slow uploads: the upload phase holds no transaction or connection. A failed create
+ * still cleans up the uploads that were in flight.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // create() manages its own transaction
+@Import({ProjectServiceImpl.class, ImageAssetServiceImpl.class, SimpleMeterRegistry.class,
+        ProjectCreateConnectionTest.UploadPool.class})
+class ProjectCreateConnectionTest {
+
+    @Autowired
+    private ProjectService projectService;
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @MockitoBean
+    private ImageStorageService imageStorageService;
+    @MockitoBean
+    private ImageNormalizer imageNormalizer;
+    @MockitoBean
+    private AssetCleanupService assetCleanupService;
+    @MockitoBean
+    private ImageUrlService imageUrlService;
+    @MockitoBean
+    private ProjectSearchIndex projectSearchIndex;
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @Test
+    void readsKeepFlowingDuringSlowUploads() throws Exception {
+        CountDownLatch uploading = new CountDownLatch(1);
+        CountDownLatch finishUploads = new CountDownLatch(1);
+        AtomicInteger stored = new AtomicInteger();
+        when(imageStorageService.smartUpload(any(Path.class), anyString())).thenAnswer(inv -> {
+            uploading.countDown();
+            if (!finishUploads.await(30, TimeUnit.SECONDS)) throw new IllegalStateException("never released");
+            return "projects/slow/img-" + stored.incrementAndGet();
+        });
+
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<ProjectDTO> created = client.submit(() -> projectService.create("Slow upload", "Description",
+                    "Renovation", photo("thumb"), List.of(photo("a"), photo("b"))));
+            assertTrue(uploading.await(10, TimeUnit.SECONDS));
+
+            // Would wait out the 2 s connection timeout if create() still held the only connection
+            long t0 = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(0, projectRepository.count());
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) < 2000);
+
+            finishUploads.countDown();
+            ProjectDTO project = created.get(30, TimeUnit.SECONDS);
+            assertNotNull(project.getId());
+            assertEquals(1, projectRepository.count());
+            assertEquals(3, stored.get());
+        } finally {
+            finishUploads.countDown();
+            client.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedCreateWaitsForUploadsInFlightBeforeCleaningUp() throws Exception {
+        CountDownLatch galleryStarted = new CountDownLatch(2);
+        when(imageStorageService.smartUpload(any(Path.class), anyString())).thenAnswer(inv -> {
+            String content = Files.readString(inv.getArgument(0, Path.class));
+            if (content.equals("rejected-thumb")) {
+                assertTrue(galleryStarted.await(10, TimeUnit.SECONDS));
+                throw new IOException("thumbnail rejected");
+            }
+            galleryStarted.countDown();
+            Thread.sleep(300);
+            return "projects/slow/" + content;
+        });
+
+        assertThrows(IOException.class, () -> projectService.create("Failing", "Description", "Renovation",
+                photo("rejected-thumb"), List.of(photo("c"), photo("d"))));
+
+        // Both gallery uploads finished after the thumbnail failed, and are still queued for deletion
+        verify(assetCleanupService).enqueueDetached(List.of("projects/slow/c"));
+        verify(assetCleanupService).enqueueDetached(List.of("projects/slow/d"));
+        assertFalse(projectRepository.findAll().stream().anyMatch(p -> p.getTitle().equals("Failing")));
+    }
+
+    private static MockMultipartFile photo(String content) {
+        return new MockMultipartFile("images", content + ".jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class UploadPool {
+        @Bean(name = "imageUploadExecutor")
+        AsyncTaskExecutor imageUploadExecutor() {
+            return new UploadPoolConfig().imageUploadExecutor(UploadExecutorMode.PLATFORM, 8);
+        }
+    }
+}
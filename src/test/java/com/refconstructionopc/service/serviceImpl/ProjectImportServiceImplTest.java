@@ -0,0 +1,267 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.refconstructionopc.auth.security.config.UploadPoolConfig;
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectImportItemResultDTO;
+import com.refconstructionopc.dto.ProjectImportResultDTO;
+import com.refconstructionopc.enums.ProjectImportStatus;
+import com.refconstructionopc.model.Project;
+import com.refconstructionopc.repository.ProjectRepository;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageStorageService;
+import com.refconstructionopc.service.ProjectImportService;
+import com.refconstructionopc.upload.ImageNormalizer;
+import com.refconstructionopc.upload.RemoteImageFetcher;
+import com.refconstructionopc.upload.SpooledUpload;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports against a local stub site: every valid project whose images download is written
+ * by the batched inserts, the others are reported per item and leave no rows.
+ */
+@DataJpaTest(properties = {
+        "imports.allow-private-hosts=true",
+        "imports.batch-size=2"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // imports manage their own transactions
+@Import({ProjectImportServiceImpl.class, ImageAssetServiceImpl.class, RemoteImageFetcher.class,
+        SimpleMeterRegistry.class, ProjectImportServiceImplTest.UploadPool.class})
+class ProjectImportServiceImplTest {
+
+    @Autowired
+    private ProjectImportService projectImportService;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ImageStorageService imageStorageService;
+    @MockitoBean
+    private ImageNormalizer imageNormalizer;
+    @MockitoBean
+    private AssetCleanupService assetCleanupService;
+
+    private HttpServer site;
+    private String base;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        site = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        site.createContext("/", this::serve);
+        site.start();
+        base = "http://127.0.0.1:" + site.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        site.stop(0);
+    }
+
+    @Test
+    void importsEachProjectThatDownloadsAndReportsTheRest() throws Exception {
+        AtomicInteger stored = new AtomicInteger();
+        when(imageStorageService.smartUpload(any(Path.class), anyString()))
+                .thenAnswer(inv -> "projects/imported/img-" + stored.incrementAndGet());
+
+        Instant before = Instant.now().minusSeconds(1);
+        ProjectImportResultDTO result = projectImportService.importProjects(List.of(
+                item("Kitchen", "Interior", "/p1/thumb.jpg", "/p1/a.jpg", "/p1/b.jpg"),
+                item("Deck", "Exterior", "/p2/thumb.jpg", "/redirect/p2/a.jpg"),
+                item("Bath", "Interior", "/p3/thumb.jpg", "/missing.jpg"),
+                item(" ", "Interior", "/p4/thumb.jpg", "/p4/a.jpg"),
+                item("Roof", "Exterior", "/p5/thumb.jpg", "/p5/a.jpg")));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(ProjectImportItemResultDTO::getStatus).containsExactly(
+                ProjectImportStatus.IMPORTED, ProjectImportStatus.IMPORTED, ProjectImportStatus.FAILED,
+                ProjectImportStatus.FAILED, ProjectImportStatus.IMPORTED);
+        assertThat(result.getItems().get(2).getError()).contains("404");
+        assertThat(result.getItems().get(3).getError()).contains("title is required");
+
+        List<Project> projects = projectRepository.findAll();
+        assertThat(projects).extracting(Project::getTitle).containsExactlyInAnyOrder("Kitchen", "Deck", "Roof");
+        for (Project p : projects) {
+            assertThat(p.getCreatedAt()).isBetween(before, Instant.now().plusSeconds(1));
+        }
+        ProjectImportItemResultDTO kitchen = result.getItems().get(0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_images WHERE project_id = ?",
+                Integer.class, kitchen.getProjectId())).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT project_count FROM service_type_counts WHERE service_type = 'Exterior'",
+                Integer.class)).isEqualTo(2);
+        // The failed download stopped its project before any upload
+        assertThat(stored.get()).isEqualTo(7);
+    }
+
+    @Test
+    void refusesPrivateHostsUnlessAllowed() {
+        RemoteImageFetcher fetcher = new RemoteImageFetcher(5);
+        ReflectionTestUtils.setField(fetcher, "fetchTimeoutSeconds", 5L);
+        assertThatThrownBy(() -> fetcher.fetch(base + "/p1/thumb.jpg"))
+                .isInstanceOf(IOException.class).hasMessageContaining("private address");
+        assertThatThrownBy(() -> fetcher.fetch("file:///etc/passwd"))
+                .isInstanceOf(IOException.class).hasMessageContaining("Only http(s)");
+        for (String host : List.of("100.64.0.1", "[fd00:ec2::254]", "[::ffff:169.254.169.254]", "[::127.0.0.1]")) {
+            assertThatThrownBy(() -> fetcher.fetch("http://" + host + "/a.jpg"))
+                    .isInstanceOf(IOException.class).hasMessageContaining("private address");
+        }
+    }
+
+    @Test
+    void cutsOffASlowBodyAtTheFetchDeadline() {
+        RemoteImageFetcher fetcher = new RemoteImageFetcher(5);
+        ReflectionTestUtils.setField(fetcher, "fetchTimeoutSeconds", 1L);
+        ReflectionTestUtils.setField(fetcher, "readTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(fetcher, "allowPrivateHosts", true);
+        ReflectionTestUtils.setField(fetcher, "maxFileSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(fetcher, "spoolDir", System.getProperty("java.io.tmpdir"));
+
+        long t0 = System.nanoTime();
+        assertThatThrownBy(() -> fetcher.fetch(base + "/slow.jpg"))
+                .isInstanceOf(SocketTimeoutException.class).hasMessageContaining("took over 1 s");
+        assertThat(System.nanoTime() - t0).isLessThan(TimeUnit.SECONDS.toNanos(3));
+    }
+
+    @Test
+    void followsARedirectFromASiteThatDropsTheConnection() throws Exception {
+        RemoteImageFetcher fetcher = new RemoteImageFetcher(5);
+        ReflectionTestUtils.setField(fetcher, "fetchTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(fetcher, "readTimeoutSeconds", 5L);
+        ReflectionTestUtils.setField(fetcher, "allowPrivateHosts", true);
+        ReflectionTestUtils.setField(fetcher, "maxFileSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(fetcher, "spoolDir", System.getProperty("java.io.tmpdir"));
+
+        // Answers the redirect as keep-alive, then closes the connection anyway
+        try (ServerSocket server = new ServerSocket(0, 10, InetAddress.getLoopbackAddress())) {
+            Thread site = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2; i++) {
+                        try (Socket socket = server.accept()) {
+                            BufferedReader in = new BufferedReader(
+                                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                            String requestLine = in.readLine();
+                            while (!in.readLine().isEmpty()) {
+                                // headers
+                            }
+                            String response = requestLine.contains("/moved")
+                                    ? "HTTP/1.1 302 Found\r\nLocation: /a.jpg\r\nContent-Length: 0\r\n\r\n"
+                                    : "HTTP/1.1 200 OK\r\nContent-Type: image/jpeg\r\nContent-Length: 3\r\n\r\nabc";
+                            socket.getOutputStream().write(response.getBytes(StandardCharsets.US_ASCII));
+                            socket.getOutputStream().flush();
+                        }
+                    }
+                } catch (IOException ignored) {
+                    // the test fails on the client side
+                }
+            });
+            site.start();
+
+            try (SpooledUpload image = fetcher.fetch("http://127.0.0.1:" + server.getLocalPort() + "/moved")) {
+                assertThat(image.getSize()).isEqualTo(3);
+            }
+            site.join(5_000);
+        }
+    }
+
+    private ProjectImportItemDTO item(String title, String serviceType, String thumbnail, String... images) {
+        ProjectImportItemDTO item = new ProjectImportItemDTO();
+        item.setTitle(title);
+        item.setDescription(title + " project");
+        item.setServiceType(serviceType);
+        item.setThumbnailUrl(base + thumbnail);
+        item.setImageUrls(Arrays.stream(images).map(i -> base + i).toList());
+        return item;
+    }
+
+    // Each path serves distinct bytes; /redirect/x redirects to /x, /missing* is 404,
+    // /slow* trickles a byte every 100 ms
+    private void serve(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.startsWith("/slow")) {
+            exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+            exchange.sendResponseHeaders(200, 100);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 100; i++) {
+                    out.write('x');
+                    out.flush();
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        if (path.startsWith("/redirect/")) {
+            exchange.getResponseHeaders().add("Location", path.substring("/redirect".length()));
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+            return;
+        }
+        if (path.startsWith("/missing")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = ("image at " + path).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "image/jpeg");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @TestConfiguration
+    static class UploadPool {
+        // One thread and no queue: most extra lanes are refused, and the calling lane picks up their work
+        @Bean(name = "projectImportExecutor")
+        AsyncTaskExecutor projectImportExecutor() {
+            return new UploadPoolConfig().projectImportExecutor(1, 0);
+        }
+    }
+}
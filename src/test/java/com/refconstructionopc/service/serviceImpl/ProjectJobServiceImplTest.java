@@ -0,0 +1,191 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.dto.ProjectImportItemDTO;
+import com.refconstructionopc.dto.ProjectImportItemResultDTO;
+import com.refconstructionopc.dto.ProjectImportResultDTO;
+import com.refconstructionopc.dto.ProjectJobDTO;
+import com.refconstructionopc.enums.ProjectImportStatus;
+import com.refconstructionopc.enums.ProjectJobKind;
+import com.refconstructionopc.enums.ProjectJobStatus;
+import com.refconstructionopc.model.ProjectJob;
+import com.refconstructionopc.repository.ProjectJobRepository;
+import com.refconstructionopc.service.ProjectImportService;
+import com.refconstructionopc.service.ProjectJobService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.UploadProgressListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Job state (a created project or per-item import results) is read back from project_jobs,
+ * only by the account that submitted it, and a restart fails the jobs the node had not finished;
+ * a job failed while it waited in the queue stays failed.
+ */
+@DataJpaTest(properties = "projects.jobs.node-id=node-a")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // jobs are written from the worker
+@Import({ProjectJobServiceImpl.class, ProjectJobServiceImplTest.Workers.class})
+class ProjectJobServiceImplTest {
+
+    @Autowired
+    private ProjectJobService projectJobService;
+    @Autowired
+    private ProjectJobRepository projectJobRepository;
+    @Autowired
+    private AsyncTaskExecutor projectJobExecutor;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ProjectService projectService;
+    @MockitoBean
+    private ProjectImportService projectImportService;
+
+    @Test
+    void storesTheOutcomeForItsSubmitterOnly() throws Exception {
+        ProjectDTO created = new ProjectDTO();
+        created.setUniqueId("kitchen-1");
+        created.setTitle("Kitchen");
+        when(projectService.create(anyString(), anyString(), anyString(), any(), any(), any())).thenReturn(created);
+
+        ProjectJobDTO queued = projectJobService.submitCreate("Kitchen", "Kitchen project", "Interior",
+                image("thumb.jpg"), List.of(image("a.jpg")), "alice", null);
+
+        ProjectJobDTO job = projectJobService.findJob(queued.getJobId(), "alice").orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(ProjectJobStatus.SUCCEEDED);
+        assertThat(job.getTotalFiles()).isEqualTo(2);
+        assertThat(job.getProject().getUniqueId()).isEqualTo("kitchen-1");
+        assertThat(projectJobService.findJob(queued.getJobId(), "bob")).isEmpty();
+    }
+
+    @Test
+    void importsRunAsJobsWithPerItemResults() {
+        ProjectImportResultDTO imported = new ProjectImportResultDTO();
+        imported.setImported(1);
+        imported.setFailed(1);
+        imported.setItems(List.of(
+                new ProjectImportItemResultDTO(0, ProjectImportStatus.IMPORTED, "deck-1", 7L, null),
+                new ProjectImportItemResultDTO(1, ProjectImportStatus.FAILED, null, null, "GET returned 404")));
+        doAnswer(inv -> {
+            inv.getArgument(1, UploadProgressListener.class).onUploaded(1, 2);
+            return imported;
+        }).when(projectImportService).importProjects(anyList(), any(UploadProgressListener.class));
+
+        ProjectJobDTO queued = projectJobService.submitImport(
+                List.of(new ProjectImportItemDTO(), new ProjectImportItemDTO()), "alice", null);
+
+        ProjectJobDTO job = projectJobService.findJob(queued.getJobId(), "alice").orElseThrow();
+        assertThat(job.getKind()).isEqualTo(ProjectJobKind.IMPORT);
+        assertThat(job.getStatus()).isEqualTo(ProjectJobStatus.SUCCEEDED);
+        assertThat(job.getUploadedFiles()).isEqualTo(2);
+        assertThat(job.getProject()).isNull();
+        assertThat(job.getImportResult().getItems()).extracting(ProjectImportItemResultDTO::getStatus)
+                .containsExactly(ProjectImportStatus.IMPORTED, ProjectImportStatus.FAILED);
+    }
+
+    @Test
+    void restartFailsOnlyThisNodesUnfinishedJobs() {
+        projectJobRepository.save(job("restart-own", "node-a"));
+        projectJobRepository.save(job("restart-other", "node-b"));
+
+        new ProjectJobServiceImpl(projectService, projectImportService, projectJobRepository, projectJobExecutor,
+                objectMapper, "node-a").afterSingletonsInstantiated();
+
+        ProjectJob own = projectJobRepository.findById("restart-own").orElseThrow();
+        assertThat(own.getStatus()).isEqualTo(ProjectJobStatus.FAILED);
+        assertThat(own.getError()).contains("restart");
+        assertThat(own.getFinishedAt()).isNotNull();
+        assertThat(projectJobRepository.findById("restart-other").orElseThrow().getStatus())
+                .isEqualTo(ProjectJobStatus.RUNNING);
+    }
+
+    @Test
+    void aJobFailedWhileQueuedNeverRuns() {
+        List<Runnable> queued = new ArrayList<>();
+        ProjectJobServiceImpl service = new ProjectJobServiceImpl(projectService, projectImportService,
+                projectJobRepository, new TaskExecutorAdapter(queued::add), objectMapper, "node-c");
+        ReflectionTestUtils.setField(service, "staleMinutes", 30L);
+        ReflectionTestUtils.setField(service, "ttlMinutes", 60L);
+
+        ProjectJobDTO waiting = service.submitImport(List.of(new ProjectImportItemDTO()), "alice", null);
+        ProjectJob stale = projectJobRepository.findById(waiting.getJobId()).orElseThrow();
+        stale.setUpdatedAt(Instant.now().minus(Duration.ofHours(1)));
+        projectJobRepository.save(stale);
+
+        // This node is alive: its queued job is refreshed, not abandoned
+        service.evictFinishedJobs();
+        assertThat(projectJobRepository.findById(waiting.getJobId()).orElseThrow().getStatus())
+                .isEqualTo(ProjectJobStatus.QUEUED);
+
+        projectJobRepository.failUnfinishedOnNode("node-c", "Interrupted by a restart", Instant.now());
+        queued.forEach(Runnable::run);
+
+        verify(projectImportService, never()).importProjects(anyList(), any(UploadProgressListener.class));
+        ProjectJob job = projectJobRepository.findById(waiting.getJobId()).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(ProjectJobStatus.FAILED);
+        assertThat(job.getError()).contains("restart");
+    }
+
+    private static ProjectJob job(String id, String node) {
+        ProjectJob job = new ProjectJob();
+        job.setId(id);
+        job.setKind(ProjectJobKind.CREATE);
+        job.setStatus(ProjectJobStatus.RUNNING);
+        job.setSubmittedBy("alice");
+        job.setNode(node);
+        job.setTotalFiles(1);
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(Instant.now());
+        return job;
+    }
+
+    private static MockMultipartFile image(String name) {
+        return new MockMultipartFile("images", name, "image/jpeg", name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TestConfiguration
+    static class Workers {
+        // Runs each job on the submitting thread, so it has finished when submit* returns
+        @Bean(name = "projectJobExecutor")
+        AsyncTaskExecutor projectJobExecutor() {
+            return new TaskExecutorAdapter(Runnable::run);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().registerModule(new JavaTimeModule());
+        }
+    }
+}
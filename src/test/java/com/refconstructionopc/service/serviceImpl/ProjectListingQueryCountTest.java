@@ -0,0 +1,100 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.dto.ProjectDTO;
+import com.refconstructionopc.model.Project;
+import com.refconstructionopc.model.ProjectImage;
+import com.refconstructionopc.search.ProjectSearchIndex;
+import com.refconstructionopc.service.ImageAssetService;
+import com.refconstructionopc.service.ImageUrlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProjectServiceImpl.class, SimpleMeterRegistry.class})
+class ProjectListingQueryCountTest {
+
+    private static final int PROJECTS = 6;
+    private static final int IMAGES_PER_PROJECT = 3;
+
+    @Autowired
+    private ProjectServiceImpl projectService;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @MockitoBean
+    private ImageAssetService imageAssetService;
+    @MockitoBean
+    private ImageUrlService imageUrlService;
+    @MockitoBean(name = "imageUploadExecutor")
+    private AsyncTaskExecutor imageUploadExecutor;
+    @MockitoBean
+    private ProjectSearchIndex projectSearchIndex;
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < PROJECTS; i++) {
+            Project p = new Project();
+            p.setTitle("Project " + i);
+            p.setDescription("Description " + i);
+            p.setServiceType("Renovation");
+            p.setThumbnailImage("thumb-" + i);
+            p.setImages(new ArrayList<>());
+            for (int j = 0; j < IMAGES_PER_PROJECT; j++) {
+                ProjectImage img = new ProjectImage();
+                img.setProject(p);
+                img.setImageUrl("img-" + i + "-" + j);
+                p.getImages().add(img);
+            }
+            em.persist(p);
+        }
+        em.flush();
+        em.clear(); // nothing cached in the persistence context
+    }
+
+    @Test
+    void listingStatementCountDoesNotGrowWithPageSize() {
+        long small = statementsFor(2);
+        long large = statementsFor(PROJECTS);
+
+        // page query + count query + one batched image query
+        assertTrue(large <= 3, "expected at most 3 statements, got " + large);
+        assertEquals(small, large);
+    }
+
+    private long statementsFor(int size) {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        em.clear();
+        stats.clear();
+
+        Page<ProjectDTO> page = projectService.findAllProject(null, 0, size);
+
+        assertEquals(size, page.getNumberOfElements());
+        page.forEach(dto -> assertEquals(IMAGES_PER_PROJECT, dto.getImages().size()));
+        return stats.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,219 @@
+package com.refconstructionopc.service.serviceImpl;
+
+import com.cloudinary.Cloudinary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.refconstructionopc.auth.security.config.UploadPoolConfig;
+import com.refconstructionopc.enums.UploadExecutorMode;
+import com.refconstructionopc.search.ProjectSearchIndex;
+import com.refconstructionopc.service.AssetCleanupService;
+import com.refconstructionopc.service.ImageUrlService;
+import com.refconstructionopc.service.ProjectService;
+import com.refconstructionopc.upload.AdaptiveConcurrencyLimiter;
+import com.refconstructionopc.upload.ImageNormalizer;
+import com.refconstructionopc.upload.RetryPolicy;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * End-to-end create() latency with the PLATFORM pool vs the VIRTUAL executor, uploading
+ * through the real Cloudinary client to a local stub that adds a fixed per-request delay.
+ *
+ * Run with: mvn test -Pbenchmark (needs Java 21 for the virtual mode).
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // create() commits on its own, as in production
+@Import({ProjectServiceImpl.class, ImageAssetServiceImpl.class, CloudinaryServiceImpl.class,
+        SimpleMeterRegistry.class, UploadExecutorBenchmarkTest.StubCloudinary.class})
+class UploadExecutorBenchmarkTest {
+
+    private static final int LATENCY_MS = 150;
+    private static final int CONCURRENT_CREATES = 8; // stays under the Hikari pool size
+    private static final int IMAGES_PER_PROJECT = 6;
+    private static final int MAX_CONCURRENCY = 32;
+    private static final int IMAGE_BYTES = 64 * 1024;
+
+    private static final HttpServer STUB = startStub();
+
+    @Autowired
+    private ProjectService projectService;
+
+    @MockitoBean
+    private ProjectSearchIndex projectSearchIndex;
+    @MockitoBean
+    private ObjectMapper objectMapper;
+    @MockitoBean
+    private ImageNormalizer imageNormalizer;
+    @MockitoBean
+    private AssetCleanupService assetCleanupService;
+    @MockitoBean
+    private ImageUrlService imageUrlService;
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void compareCreateLatency() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+
+        Object target = AopTestUtils.getTargetObject(projectService);
+        Map<UploadExecutorMode, long[]> results = new EnumMap<>(UploadExecutorMode.class);
+        for (UploadExecutorMode mode : UploadExecutorMode.values()) {
+            AsyncTaskExecutor executor = new UploadPoolConfig().imageUploadExecutor(mode, MAX_CONCURRENCY);
+            ReflectionTestUtils.setField(target, "imageUploadExecutor", executor);
+            try {
+                runRound(); // warm-up
+                results.put(mode, runRound());
+            } finally {
+                if (executor instanceof AutoCloseable c) c.close();
+            }
+        }
+
+        System.out.printf("%n%d concurrent creates x (1 thumbnail + %d images), %d ms per upload%n",
+                CONCURRENT_CREATES, IMAGES_PER_PROJECT, LATENCY_MS);
+        System.out.printf("%-9s %8s %8s %8s%n", "mode", "p50 ms", "p95 ms", "max ms");
+        results.forEach((mode, ms) -> System.out.printf("%-9s %8d %8d %8d%n",
+                mode, percentile(ms, 50), percentile(ms, 95), ms[ms.length - 1]));
+    }
+
+    private long[] runRound() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CREATES);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CREATES; i++) {
+                futures.add(clients.submit(this::timedCreate));
+            }
+            long[] latencies = new long[futures.size()];
+            for (int i = 0; i < latencies.length; i++) latencies[i] = futures.get(i).get();
+            Arrays.sort(latencies);
+            assertEquals(CONCURRENT_CREATES, latencies.length);
+            return latencies;
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private long timedCreate() throws IOException {
+        List<MultipartFile> images = new ArrayList<>();
+        for (int i = 0; i < IMAGES_PER_PROJECT; i++) {
+            images.add(new MockMultipartFile("images", "image" + i + ".jpg", "image/jpeg", randomImage()));
+        }
+        MultipartFile thumbnail = new MockMultipartFile("thumbnail", "thumb.jpg", "image/jpeg", randomImage());
+
+        long t0 = System.nanoTime();
+        projectService.create("Benchmark", "Executor benchmark", "Renovation", thumbnail, images);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+    }
+
+    // Distinct content per file so deduplication never skips an upload
+    private static byte[] randomImage() {
+        byte[] bytes = new byte[IMAGE_BYTES];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        int idx = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                byte[] buf = new byte[64 * 1024];
+                try (InputStream in = exchange.getRequestBody()) {
+                    while (in.read(buf) > 0) {
+                        // drain
+                    }
+                }
+                try {
+                    Thread.sleep(LATENCY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = ("{\"public_id\":\"projects/bench/" + UUID.randomUUID() + "\"}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class StubCloudinary {
+        @Bean
+        Cloudinary cloudinary() {
+            PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager();
+            connections.setMaxTotal(64);
+            connections.setDefaultMaxPerRoute(64);
+            Map<String, Object> config = new HashMap<>();
+            config.put("cloud_name", "test");
+            config.put("api_key", "key");
+            config.put("api_secret", "secret");
+            config.put("upload_prefix", "http://127.0.0.1:" + STUB.getAddress().getPort());
+            config.put("properties", Map.of("connectionManager", connections));
+            return new Cloudinary(config);
+        }
+
+        // Pinned at the maximum so the comparison measures the executors, not the limiter
+        @Bean
+        AdaptiveConcurrencyLimiter cloudinaryLimiter() {
+            return new AdaptiveConcurrencyLimiter(64, 64, 64, 0.9, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        }
+
+        @Bean
+        RetryPolicy cloudinaryRetryPolicy() {
+            return new RetryPolicy(1, Duration.ZERO, Duration.ZERO);
+        }
+
+        @Bean(name = "imageUploadExecutor")
+        AsyncTaskExecutor imageUploadExecutor() {
+            return new UploadPoolConfig().imageUploadExecutor(UploadExecutorMode.PLATFORM, MAX_CONCURRENCY);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.refconstructionopc.upload;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static AdaptiveConcurrencyLimiter limiter(int initial, Duration acquireTimeout) {
+        return new AdaptiveConcurrencyLimiter(initial, 1, 10, 0.5, Duration.ofSeconds(5), acquireTimeout);
+    }
+
+    @Test
+    void growsOnSuccessAndBacksOffOnOverload() throws IOException {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofSeconds(1));
+        for (int i = 0; i < 3; i++) limiter.execute(() -> "ok");
+        // One call at a time: growth stops once a single call no longer uses half the limit
+        assertThat(limiter.getLimit()).isEqualTo(3);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new RuntimeException("Server returned unexpected status code - 420 - Rate Limit Exceeded");
+        })).isInstanceOf(RuntimeException.class);
+        assertThat(limiter.getLimit()).isEqualTo(1);
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new SocketTimeoutException("Read timed out");
+        })).isInstanceOf(SocketTimeoutException.class);
+        assertThat(limiter.getLimit()).isEqualTo(1); // never below minLimit
+        assertThat(limiter.getDrops()).isEqualTo(2);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void clientErrorsDoNotChangeTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> limiter.execute(() -> {
+            throw new RuntimeException("Invalid image file");
+        })).hasMessage("Invalid image file");
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getDrops()).isZero();
+    }
+
+    @Test
+    void callsBeyondTheLimitWaitAndTimeOut() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, Duration.ofMillis(200));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> holder = pool.submit(() -> limiter.execute(() -> {
+                started.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "held";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> limiter.execute(() -> "blocked"))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Timed out");
+
+            finish.countDown();
+            assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+            assertThat(limiter.execute(() -> "next")).isEqualTo("next");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void largePayloadsGetLongerBeforeCountingAsSlow() throws IOException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, 0.5,
+                Duration.ofMillis(50), 1_000_000, Duration.ofSeconds(1));
+        assertThat(limiter.slowCallNanos(0)).isEqualTo(Duration.ofMillis(50).toNanos());
+        assertThat(limiter.slowCallNanos(8_000_000)).isEqualTo(Duration.ofMillis(8_050).toNanos());
+
+        // 150 ms: slow for an empty call, well within budget for 1 MB
+        limiter.execute(1_000_000, () -> sleep(150));
+        assertThat(limiter.getDrops()).isZero();
+        limiter.execute(() -> sleep(150));
+        assertThat(limiter.getDrops()).isEqualTo(1);
+    }
+
+    private static String sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        return "done";
+    }
+
+    @Test
+    void recognisesThrottlingAndServerErrors() {
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(new RuntimeException("Rate Limit Exceeded"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(
+                new RuntimeException("Server returned unexpected status code - 503 - <html>"))).isTrue();
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(
+                new RuntimeException("Server returned unexpected status code - 401 - denied"))).isFalse();
+        assertThat(AdaptiveConcurrencyLimiter.isOverload(new RuntimeException((String) null))).isFalse();
+    }
+}
@@ -0,0 +1,100 @@
+package com.refconstructionopc.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageNormalizerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void downsizesAppliesOrientationAndStripsExif() throws Exception {
+        // Stored 1600x1200, red on top; orientation 6 means "rotate 90° clockwise to display"
+        BufferedImage stored = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = stored.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 1600, 600);
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 600, 1600, 600);
+        g.dispose();
+        Path source = dir.resolve("photo.jpg");
+        Files.write(source, withExifOrientation(jpeg(stored), 6));
+        assertThat(ImageNormalizer.exifOrientation(source)).isEqualTo(6);
+
+        Path normalized = normalizer(400).normalize(source);
+
+        assertThat(normalized).isNotNull();
+        BufferedImage out = ImageIO.read(normalized.toFile());
+        assertThat(out.getWidth()).isEqualTo(300);
+        assertThat(out.getHeight()).isEqualTo(400);
+        // The red top edge is now on the right
+        assertThat(new Color(out.getRGB(280, 200)).getRed()).isGreaterThan(200);
+        assertThat(new Color(out.getRGB(20, 200)).getBlue()).isGreaterThan(200);
+        String bytes = new String(Files.readAllBytes(normalized), StandardCharsets.ISO_8859_1);
+        assertThat(bytes).doesNotContain("Exif");
+        assertThat(Files.size(normalized)).isLessThan(Files.size(source));
+    }
+
+    @Test
+    void undecodableFilesAreUploadedUnchanged() throws Exception {
+        Path source = dir.resolve("clip.heic");
+        Files.write(source, new byte[]{0, 0, 0, 24, 'f', 't', 'y', 'p', 'h', 'e', 'i', 'c'});
+
+        assertThat(normalizer(400).normalize(source)).isNull();
+    }
+
+    @Test
+    void disabledNormalizerIsANoOp() throws Exception {
+        ImageNormalizer normalizer = normalizer(400);
+        ReflectionTestUtils.setField(normalizer, "enabled", false);
+        Path source = dir.resolve("photo.jpg");
+        Files.write(source, jpeg(new BufferedImage(1000, 1000, BufferedImage.TYPE_INT_RGB)));
+
+        assertThat(normalizer.normalize(source)).isNull();
+    }
+
+    private ImageNormalizer normalizer(int maxDimension) {
+        ImageNormalizer normalizer = new ImageNormalizer(new SimpleAsyncTaskExecutor());
+        ReflectionTestUtils.setField(normalizer, "enabled", true);
+        ReflectionTestUtils.setField(normalizer, "maxDimension", maxDimension);
+        ReflectionTestUtils.setField(normalizer, "jpegQuality", 0.8f);
+        ReflectionTestUtils.setField(normalizer, "spoolDir", dir.toString());
+        return normalizer;
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // Inserts a minimal big-endian EXIF APP1 segment (IFD0 with one Orientation entry) after SOI
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        ByteBuffer app1 = ByteBuffer.allocate(36);
+        app1.putShort((short) 0xFFE1).putShort((short) 34);
+        app1.put("Exif".getBytes(StandardCharsets.US_ASCII)).put((byte) 0).put((byte) 0);
+        app1.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        app1.putShort((short) 1);
+        app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        app1.putInt(0);
+
+        ByteBuffer out = ByteBuffer.allocate(jpeg.length + 36);
+        out.put(jpeg, 0, 2).put(app1.array()).put(jpeg, 2, jpeg.length - 2);
+        return out.array();
+    }
+}